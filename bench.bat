@@ -0,0 +1,55 @@
+@echo off
+echo ================================
+echo Running Gwen2D Benchmarks
+echo ================================
+
+:: Set JAVA_HOME for this script
+set JAVA_HOME=C:\Program Files\Java\jdk-17
+set PATH=%JAVA_HOME%\bin;%PATH%
+
+:: Create output directories
+if not exist bin mkdir bin
+if not exist bench-bin mkdir bench-bin
+
+:: Compile framework
+echo Compiling sources...
+dir /s /B src\*.java > sources.txt
+javac -d bin @sources.txt
+
+if %errorlevel% neq 0 (
+    echo [ERROR] Compilation failed!
+    del sources.txt
+    exit /b 1
+)
+
+del sources.txt
+
+:: Compile benchmarks against the framework
+echo Compiling benchmarks...
+dir /s /B bench\*.java > sources.txt
+javac -cp bin -d bench-bin @sources.txt
+
+if %errorlevel% neq 0 (
+    echo [ERROR] Benchmark compilation failed!
+    del sources.txt
+    exit /b 1
+)
+
+del sources.txt
+
+:: Run (optional first argument: regex filter on benchmark names)
+echo Running benchmarks...
+java -Djava.awt.headless=true -cp "bin;bench-bin" main.bench.BenchmarkRunner %1 > bench_output.txt
+
+if %errorlevel% neq 0 (
+    echo [ERROR] Benchmarks failed!
+    exit /b 1
+)
+
+type bench_output.txt
+
+echo ================================
+echo [SUCCESS] Results written to bench_output.txt
+echo ================================
+
+pause
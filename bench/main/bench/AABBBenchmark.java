@@ -0,0 +1,31 @@
+package main.bench;
+
+import java.util.Random;
+
+import main.engine.physics.AABB;
+import main.engine.physics.Vector2D;
+
+/**
+ * AABB.overlap over a mix of overlapping and separate boxes.
+ */
+final class AABBBenchmark {
+
+    private AABBBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void register(BenchmarkRunner runner){
+        int count = 1024;
+        Vector2D[] positions = new Vector2D[count];
+        Random random = new Random(11);
+        for(int i = 0; i < count; i++){
+            positions[i] = new Vector2D(random.nextInt(400), random.nextInt(400));
+        }
+        int[] cursor = {0};
+
+        runner.add("AABB.overlap", "boxes=" + count, () -> {
+            int i = cursor[0] = (cursor[0] + 1) & (count - 1);
+            return AABB.overlap(positions[i], 48, 64, positions[(i * 7 + 3) & (count - 1)], 48, 64) ? 1 : 0;
+        });
+    }
+}
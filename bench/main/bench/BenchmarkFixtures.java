@@ -0,0 +1,100 @@
+package main.bench;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import main.engine.api.Collidable;
+import main.engine.api.Positioned;
+import main.engine.physics.AABB;
+import main.engine.physics.CollisionContext;
+import main.engine.physics.Vector2D;
+import main.engine.world.TileManager;
+
+/**
+ * Shared setup for the benchmarks: generated tiles, maps and collidables,
+ * so no resource files are needed.
+ */
+final class BenchmarkFixtures {
+
+    static final int TILE_SIZE = 48;
+    static final int SCREEN_WIDTH = 800;
+    static final int SCREEN_HEIGHT = 600;
+
+    // ids 0-3 are walkable background, 4-7 are solid platforms
+    static final int TILE_TYPES = 8;
+
+    private BenchmarkFixtures(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static BufferedImage solidImage(int width, int height, Color color){
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics2D = image.createGraphics();
+        graphics2D.setColor(color);
+        graphics2D.fillRect(0, 0, width, height);
+        graphics2D.dispose();
+        return image;
+    }
+
+    /**
+     * A map with a full background, a ground floor and random floating platforms.
+     */
+    static TileManager tileManager(int cols, int rows, long seed){
+        return tileManager(cols, rows, seed, TileManager.LayerStorage.HEAP);
+    }
+
+    static TileManager tileManager(int cols, int rows, long seed, TileManager.LayerStorage storage){
+        TileManager tileManager = new TileManager(TILE_SIZE);
+        tileManager.setLayerStorage(storage);
+        for(int id = 0; id < TILE_TYPES; id++){
+            tileManager.registerTile(id, solidImage(TILE_SIZE, TILE_SIZE, new Color(id * 30, 100, 200 - id * 20)), id >= 4);
+        }
+
+        Random random = new Random(seed);
+        int[][] background = new int[rows][cols];
+        int[][] platform = new int[rows][cols];
+        for(int row = 0; row < rows; row++){
+            for(int col = 0; col < cols; col++){
+                background[row][col] = random.nextInt(4);
+                boolean ground = row >= rows - 2;
+                boolean floating = random.nextInt(10) == 0;
+                platform[row][col] = ground || floating ? 4 + random.nextInt(4) : -1;
+            }
+        }
+        tileManager.loadMap(background, platform);
+        return tileManager;
+    }
+
+    /** Simple axis-aligned box blocking everything it overlaps. */
+    static class BoxCollidable implements Collidable, Positioned {
+
+        private final Vector2D position;
+        private final int width;
+        private final int height;
+
+        BoxCollidable(float x, float y, int width, int height){
+            this.position = new Vector2D(x, y);
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean isSolidAt(Vector2D position, int width, int height, CollisionContext context) {
+            return AABB.overlap(position, width, height, this.position, this.width, this.height);
+        }
+
+        @Override
+        public int getX() { return (int) position.x; }
+
+        @Override
+        public int getY() { return (int) position.y; }
+
+        @Override
+        public int getWidth() { return width; }
+
+        @Override
+        public int getHeight() { return height; }
+    }
+}
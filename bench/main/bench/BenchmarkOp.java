@@ -0,0 +1,13 @@
+package main.bench;
+
+/**
+ * A single measured operation.
+ *
+ * Returns a value derived from the work done so the JIT can't eliminate it;
+ * the harness folds it into a sink (the blackhole).
+ */
+@FunctionalInterface
+public interface BenchmarkOp {
+
+    long run();
+}
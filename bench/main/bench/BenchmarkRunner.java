@@ -0,0 +1,159 @@
+package main.bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * BenchmarkRunner - Minimal microbenchmark harness for the engine hot paths.
+ *
+ * Dependency-free stand-in for JMH: time-boxed warmup, several measured
+ * iterations, results as ns/op with error, plus allocation profiling
+ * (bytes/op and GC count, like JMH's -prof gc) read from the thread MXBean.
+ *
+ * usage:
+ *   java -Djava.awt.headless=true -cp bin;bench-bin main.bench.BenchmarkRunner [regex]
+ *
+ * Benchmarks registered with addAllocationFree fail the run (exit code 1)
+ * when they allocate a byte or more per operation.
+ *
+ * System properties: bench.warmupMillis, bench.measureMillis, bench.iterations
+ */
+public class BenchmarkRunner {
+
+    private static final long WARMUP_MILLIS = Long.getLong("bench.warmupMillis", 1000);
+    private static final long MEASURE_MILLIS = Long.getLong("bench.measureMillis", 1000);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+
+    // Blackhole - results are folded in here so the work can't be optimized away
+    private static volatile long sink;
+
+    // Allocation per operation above which an allocation-free benchmark fails (measurement noise stays below)
+    private static final double ALLOCATION_FREE_LIMIT = 1.0;
+
+    private final List<Entry> benchmarks = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+
+    private record Entry(String name, String params, BenchmarkOp op, boolean allocationFree) {}
+
+    /**
+     * Register a benchmark. Setup must be done before calling this,
+     * only the operation itself is measured.
+     */
+    public void add(String name, String params, BenchmarkOp op){
+        benchmarks.add(new Entry(name, params, op, false));
+    }
+
+    /** Register a benchmark whose operation must not allocate once warmed up. */
+    public void addAllocationFree(String name, String params, BenchmarkOp op){
+        benchmarks.add(new Entry(name, params, op, true));
+    }
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner();
+
+        TileManagerBenchmark.register(runner);
+        MapLoadBenchmark.register(runner);
+        CollisionCheckerBenchmark.register(runner);
+        PhysicsBenchmark.register(runner);
+        PhysicsWorldBenchmark.register(runner);
+        Vector2DBenchmark.register(runner);
+        AABBBenchmark.register(runner);
+        SpriteSheetBenchmark.register(runner);
+        SceneBenchmark.register(runner);
+        EcsBenchmark.register(runner);
+        RenderQueueBenchmark.register(runner);
+        ParticleBenchmark.register(runner);
+
+        Pattern filter = args.length > 0 ? Pattern.compile(args[0]) : null;
+        if(!runner.runAll(filter)) System.exit(1);
+    }
+
+    /** @return false if an allocation-free benchmark allocated */
+    public boolean runAll(Pattern filter){
+        System.out.println("Warmup " + WARMUP_MILLIS + " ms, " + ITERATIONS + " x " + MEASURE_MILLIS + " ms");
+        System.out.println(String.format("%-40s %-18s %14s %10s %14s %12s %6s",
+                "Benchmark", "Params", "ns/op", "error", "ops/s", "B/op", "GCs"));
+
+        for(Entry entry: benchmarks){
+            if(filter != null && !filter.matcher(entry.name()).find()) continue;
+            measure(entry);
+        }
+
+        for(String failure: failures){
+            System.out.println("FAILED " + failure);
+        }
+        return failures.isEmpty();
+    }
+
+    private void measure(Entry entry){
+        // Warmup and batch size calibration
+        long batch = 1;
+        long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1_000_000;
+        while(System.nanoTime() < warmupEnd){
+            long start = System.nanoTime();
+            runBatch(entry.op(), batch);
+            // aim for batches of ~10 ms so timer overhead stays negligible
+            if(System.nanoTime() - start < 10_000_000) batch *= 2;
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        double[] nanosPerOp = new double[ITERATIONS];
+        long totalOps = 0;
+        long gcBefore = gcCount();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+
+        for(int i = 0; i < ITERATIONS; i++){
+            long ops = 0;
+            long start = System.nanoTime();
+            long end = start + MEASURE_MILLIS * 1_000_000;
+            long now = start;
+            while(now < end){
+                runBatch(entry.op(), batch);
+                ops += batch;
+                now = System.nanoTime();
+            }
+            nanosPerOp[i] = (double) (now - start) / ops;
+            totalOps += ops;
+        }
+
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        long gcs = gcCount() - gcBefore;
+
+        double mean = 0;
+        for(double value: nanosPerOp) mean += value;
+        mean /= ITERATIONS;
+
+        double variance = 0;
+        for(double value: nanosPerOp) variance += (value - mean) * (value - mean);
+        double error = ITERATIONS > 1 ? Math.sqrt(variance / (ITERATIONS - 1)) : 0;
+
+        double bytesPerOp = (double) allocated / totalOps;
+        System.out.println(String.format("%-40s %-18s %14.2f %10.2f %14.0f %12.1f %6d",
+                entry.name(), entry.params(), mean, error, 1_000_000_000.0 / mean, bytesPerOp, gcs));
+        if(entry.allocationFree() && bytesPerOp >= ALLOCATION_FREE_LIMIT){
+            failures.add(String.format("%s %s: %.1f B/op, expected no allocation", entry.name(), entry.params(), bytesPerOp));
+        }
+    }
+
+    private static void runBatch(BenchmarkOp op, long batch){
+        long result = 0;
+        for(long i = 0; i < batch; i++){
+            result += op.run();
+        }
+        sink += result;
+    }
+
+    private static long gcCount(){
+        long count = 0;
+        for(GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()){
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+}
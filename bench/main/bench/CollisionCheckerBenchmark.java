@@ -0,0 +1,60 @@
+package main.bench;
+
+import java.util.Random;
+
+import main.engine.api.Collidable;
+import main.engine.core.GameSettings;
+import main.engine.core.Scene;
+import main.engine.physics.CollisionContext;
+import main.engine.physics.Vector2D;
+import main.engine.world.CollisionChecker;
+import main.engine.world.TileManager;
+
+/**
+ * CollisionChecker.canMove with a growing number of Collidables in the scene,
+ * indexed by the scene broadphase (grid) or without bounds (linear).
+ */
+final class CollisionCheckerBenchmark {
+
+    private CollisionCheckerBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void register(BenchmarkRunner runner){
+        int cols = 200;
+        int rows = 50;
+        TileManager tileManager = BenchmarkFixtures.tileManager(cols, rows, 7);
+
+        for(int count: new int[]{0, 10, 100, 1000}){
+            for(boolean bounded: new boolean[]{true, false}){
+                register(runner, tileManager, cols, rows, count, bounded);
+            }
+        }
+    }
+
+    private static void register(BenchmarkRunner runner, TileManager tileManager, int cols, int rows,
+                                 int count, boolean bounded){
+        Scene scene = new Scene(GameSettings.builder().tileSize(BenchmarkFixtures.TILE_SIZE).build());
+        Random random = new Random(count);
+        for(int i = 0; i < count; i++){
+            BenchmarkFixtures.BoxCollidable box = new BenchmarkFixtures.BoxCollidable(
+                    random.nextInt(cols * BenchmarkFixtures.TILE_SIZE),
+                    random.nextInt(rows * BenchmarkFixtures.TILE_SIZE), 48, 96);
+            // a lambda hides the bounds, so the scene has to test it on every query
+            Collidable collidable = bounded ? box : box::isSolidAt;
+            scene.addGameObject(collidable);
+        }
+
+        CollisionChecker checker = new CollisionChecker(tileManager, scene);
+        CollisionContext context = new CollisionContext();
+        Vector2D position = new Vector2D(0, 0);
+        int[] cursor = {0};
+
+        runner.add("CollisionChecker.canMove", "collidables=" + count + (bounded ? " grid" : " linear"), () -> {
+            int i = cursor[0] = cursor[0] * 1103515245 + 12345;
+            position.set(Math.floorMod(i >> 4, cols * BenchmarkFixtures.TILE_SIZE),
+                    Math.floorMod(i >> 16, rows * BenchmarkFixtures.TILE_SIZE));
+            return checker.canMove(position, 48, 64, context) ? 1 : 0;
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package main.bench;
+
+import main.engine.ecs.EcsWorld;
+import main.engine.ecs.MovementSystem;
+import main.engine.ecs.Vec2Store;
+
+/**
+ * EcsWorld.update running MovementSystem over N entities with a position
+ * and a velocity, to compare with Scene.update over N objects.
+ */
+final class EcsBenchmark {
+
+    private EcsBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void register(BenchmarkRunner runner){
+        for(int count: new int[]{1_000, 10_000, 100_000}){
+            EcsWorld world = new EcsWorld();
+            Vec2Store positions = world.register(new Vec2Store());
+            Vec2Store velocities = world.register(new Vec2Store());
+            for(int i = 0; i < count; i++){
+                int entity = world.create();
+                positions.add(entity, i, 0);
+                velocities.add(entity, 1, 0.5f);
+            }
+            world.addSystem(new MovementSystem(positions, velocities));
+
+            runner.add("EcsWorld.update movement", "entities=" + count, () -> {
+                world.update(1.0);
+                return (long) positions.x[0];
+            });
+        }
+    }
+}
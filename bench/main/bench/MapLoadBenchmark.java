@@ -0,0 +1,60 @@
+package main.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import main.engine.world.CompiledMap;
+import main.engine.world.CsvLayerParser;
+
+/**
+ * Loading a 500x200 layer from memory: CSV text vs compiled binary map.
+ */
+final class MapLoadBenchmark {
+
+    private MapLoadBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void register(BenchmarkRunner runner){
+        int cols = 500;
+        int rows = 200;
+        Random random = new Random(5);
+        StringBuilder csv = new StringBuilder();
+        for(int row = 0; row < rows; row++){
+            for(int col = 0; col < cols; col++){
+                if(col > 0) csv.append(',');
+                csv.append(random.nextInt(10) < 6 ? -1 : random.nextInt(64));
+            }
+            csv.append('\n');
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.US_ASCII);
+
+        runner.add("CsvLayerParser.parse", "layer=" + cols + "x" + rows, () -> {
+            try {
+                return CsvLayerParser.parse(new ByteArrayInputStream(bytes), "bench").getRows();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        ByteBuffer compiled;
+        try {
+            int[][] layer = CsvLayerParser.parse(new ByteArrayInputStream(bytes), "bench").toRows();
+            compiled = CompiledMap.encode(new int[][][]{ layer, layer }, cols, rows, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        runner.add("CompiledMap.readLayer", "layer=" + cols + "x" + rows, () -> {
+            try {
+                return CompiledMap.wrap(compiled).readLayer(1).length;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
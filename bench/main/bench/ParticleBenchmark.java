@@ -0,0 +1,62 @@
+package main.bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import main.engine.graphics.Camera;
+import main.engine.particles.ParticleEmitter;
+import main.engine.particles.ParticleSystem;
+
+/**
+ * ParticleSystem with about N live particles kept up by continuous emitters:
+ * update (move, swap-remove, emit) and draw into a 1280x720 viewport.
+ */
+final class ParticleBenchmark {
+
+    private static final int EMITTERS = 16;
+    private static final int LIFE = 60;
+
+    private ParticleBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void register(BenchmarkRunner runner){
+        BufferedImage target = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = target.createGraphics();
+
+        for(int count: new int[]{10_000, 100_000}){
+            ParticleSystem particles = warmedUp(count);
+            runner.add("ParticleSystem.update", "particles=" + count, () -> {
+                particles.update(1.0);
+                return particles.getParticleCount();
+            });
+
+            ParticleSystem drawn = warmedUp(count);
+            drawn.setCamera(new Camera(1280, 720));
+            runner.add("ParticleSystem.draw", "particles=" + count + ", 1280x720", () -> {
+                drawn.draw(g2d);
+                return drawn.getParticleCount();
+            });
+        }
+    }
+
+    /** Emitters spread over the viewport, run until the particle count is steady. */
+    private static ParticleSystem warmedUp(int count){
+        ParticleSystem particles = new ParticleSystem(count + count / 10);
+        particles.setGravity(0.05f);
+        particles.setDamping(0.99f);
+        for(int i = 0; i < EMITTERS; i++){
+            particles.createEmitter()
+                    .at(80 + i * 70, 200 + (i % 4) * 100)
+                    .rate((float) count / LIFE / EMITTERS)
+                    .duration(ParticleEmitter.FOREVER)
+                    .speed(0.5f, 3f)
+                    .life(LIFE, LIFE)
+                    .color(0xFFFF8020 + i * 8);
+        }
+        for(int tick = 0; tick < LIFE * 2; tick++){
+            particles.update(1.0);
+        }
+        return particles;
+    }
+}
@@ -0,0 +1,76 @@
+package main.bench;
+
+import main.engine.physics.CollisionContext;
+import main.engine.physics.MovementValidator;
+import main.engine.physics.PlateformerPhysics;
+import main.engine.physics.SweptTileResolver;
+import main.engine.physics.Vector2D;
+import main.engine.world.CollisionChecker;
+import main.engine.world.TileManager;
+
+/**
+ * PlateformerPhysics.calculateNextPos against a tile map:
+ * a body running back and forth while falling, landing and jumping, with
+ * the validator alone or with swept tile resolution, returning a new
+ * position or stepping one in place. Stepping in place must not allocate.
+ */
+final class PhysicsBenchmark {
+
+    private PhysicsBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void register(BenchmarkRunner runner){
+        int cols = 100;
+        int rows = 30;
+        TileManager tileManager = BenchmarkFixtures.tileManager(cols, rows, 3);
+        CollisionChecker checker = new CollisionChecker(tileManager, null);
+        CollisionContext context = new CollisionContext();
+        MovementValidator validator = (pos, w, h) -> checker.canMove(pos, w, h, context);
+
+        register(runner, "map=" + cols + "x" + rows, rows, validator, null);
+        register(runner, "map=" + cols + "x" + rows + " swept", rows, validator, checker.createTileResolver());
+    }
+
+    private static void register(BenchmarkRunner runner, String params, int rows,
+                                 MovementValidator validator, SweptTileResolver resolver){
+        PlateformerPhysics physics = new PlateformerPhysics(new Vector2D(0, 0.5f), -14, 12, 4);
+        physics.setTileResolver(resolver);
+        Vector2D right = new Vector2D(1, 0);
+        Vector2D left = new Vector2D(-1, 0);
+        Vector2D[] position = { new Vector2D(BenchmarkFixtures.TILE_SIZE * 2, 0) };
+        int[] tick = {0};
+
+        runner.add("PlateformerPhysics.calculateNextPos", params, () -> {
+            int t = tick[0]++;
+            Vector2D input = (t / 120) % 2 == 0 ? right : left;
+            if(t % 45 == 0) physics.jump();
+
+            Vector2D next = physics.calculateNextPos(position[0], input, 48, 64, validator);
+            // respawn when falling out of the map
+            if(next.y > rows * BenchmarkFixtures.TILE_SIZE){
+                next = new Vector2D(BenchmarkFixtures.TILE_SIZE * 2, 0);
+            }
+            position[0] = next;
+            return (long) next.x;
+        });
+
+        // same run moving one position in place, expected at 0 B/op
+        PlateformerPhysics inPlace = new PlateformerPhysics(new Vector2D(0, 0.5f), -14, 12, 4);
+        inPlace.setTileResolver(resolver);
+        Vector2D body = new Vector2D(BenchmarkFixtures.TILE_SIZE * 2, 0);
+        int[] stepTick = {0};
+
+        runner.addAllocationFree("PlateformerPhysics.step", params, () -> {
+            int t = stepTick[0]++;
+            Vector2D input = (t / 120) % 2 == 0 ? right : left;
+            if(t % 45 == 0) inPlace.jump();
+
+            inPlace.step(body, input, 48, 64, validator);
+            if(body.y > rows * BenchmarkFixtures.TILE_SIZE){
+                body.set(BenchmarkFixtures.TILE_SIZE * 2, 0);
+            }
+            return (long) body.x;
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package main.bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import main.engine.physics.PhysicsWorld;
+import main.engine.world.CollisionChecker;
+import main.engine.world.TileManager;
+
+/**
+ * PhysicsWorld.step for a horde of bodies running and jumping on a tile map,
+ * on the calling thread and split across the common fork-join pool.
+ */
+final class PhysicsWorldBenchmark {
+
+    private PhysicsWorldBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void register(BenchmarkRunner runner){
+        int cols = 400;
+        int rows = 30;
+        TileManager tileManager = BenchmarkFixtures.tileManager(cols, rows, 5);
+        tileManager.rebuildSolidity();
+
+        for(int count: new int[]{100, 1_000, 10_000}){
+            for(boolean parallel: new boolean[]{false, true}){
+                PhysicsWorld world = new PhysicsWorld(tileManager, 0.5f, -14, 12, 4);
+                world.setHitboxInsets(CollisionChecker.MARGIN_X, CollisionChecker.MARGIN_TOP,
+                        CollisionChecker.MARGIN_X, CollisionChecker.MARGIN_BOTTOM);
+                if(parallel) world.setParallel(ForkJoinPool.commonPool(), 256);
+
+                Random random = new Random(count);
+                int[] handles = new int[count];
+                for(int i = 0; i < count; i++){
+                    handles[i] = world.addBody(random.nextInt(cols * BenchmarkFixtures.TILE_SIZE), 0, 48, 64);
+                    world.setMoveInput(handles[i], random.nextBoolean() ? 1 : -1);
+                }
+                int[] tick = {0};
+
+                runner.add("PhysicsWorld.step", "bodies=" + count + (parallel ? " parallel" : ""), () -> {
+                    int t = tick[0]++;
+                    int handle = handles[t % count];
+                    world.jump(handle);
+                    // respawn the bodies that fell out of the map, one per step
+                    if(world.getY(handle) > rows * BenchmarkFixtures.TILE_SIZE){
+                        world.setPosition(handle, world.getX(handle), 0);
+                    }
+                    world.step();
+                    return count;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package main.bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import main.engine.core.RenderQueue;
+
+/**
+ * RenderQueue.flush of N small sprites from 8 images on 4 layers into an
+ * offscreen image: layers unchanged since last frame (sort skipped), the
+ * same grouped by state, layers changing every frame (radix sort), and the
+ * same sprites drawn directly in submission order.
+ */
+final class RenderQueueBenchmark {
+
+    private static final int IMAGES = 8;
+    private static final int LAYERS = 4;
+
+    private RenderQueueBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void register(BenchmarkRunner runner){
+        BufferedImage[] images = new BufferedImage[IMAGES];
+        for(int i = 0; i < IMAGES; i++){
+            images[i] = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+        }
+        BufferedImage target = new BufferedImage(640, 360, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = target.createGraphics();
+
+        for(int count: new int[]{1_000, 10_000}){
+            Random random = new Random(count);
+            int[] x = new int[count];
+            int[] y = new int[count];
+            int[] image = new int[count];
+            int[] layer = new int[count];
+            for(int i = 0; i < count; i++){
+                x[i] = random.nextInt(632);
+                y[i] = random.nextInt(352);
+                image[i] = random.nextInt(IMAGES);
+                layer[i] = random.nextInt(LAYERS);
+            }
+            RenderQueue queue = new RenderQueue();
+            RenderQueue batched = new RenderQueue();
+            batched.setBatchByState(true);
+            int[] frame = {0};
+
+            runner.add("RenderQueue.flush", "static layers, sprites=" + count, () -> {
+                for(int i = 0; i < count; i++){
+                    queue.submitSprite(layer[i], images[image[i]], x[i], y[i], 8, 8);
+                }
+                queue.flush(g2d);
+                return queue.getLastStateChanges();
+            });
+            runner.add("RenderQueue.flush", "static layers, batched, sprites=" + count, () -> {
+                for(int i = 0; i < count; i++){
+                    batched.submitSprite(layer[i], images[image[i]], x[i], y[i], 8, 8);
+                }
+                batched.flush(g2d);
+                return batched.getLastStateChanges();
+            });
+            runner.add("RenderQueue.flush", "moving layers, sprites=" + count, () -> {
+                int shift = ++frame[0];
+                for(int i = 0; i < count; i++){
+                    queue.submitSprite((layer[i] + shift + i) % LAYERS, images[image[i]], x[i], y[i], 8, 8);
+                }
+                queue.flush(g2d);
+                return queue.getLastStateChanges();
+            });
+            runner.add("Graphics2D.drawImage direct", "sprites=" + count, () -> {
+                for(int i = 0; i < count; i++){
+                    g2d.drawImage(images[image[i]], x[i], y[i], 8, 8, null);
+                }
+                return count;
+            });
+        }
+    }
+}
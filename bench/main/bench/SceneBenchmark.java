@@ -0,0 +1,171 @@
+package main.bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import main.engine.api.Interactable;
+import main.engine.api.ParallelUpdatable;
+import main.engine.api.Updatable;
+import main.engine.core.GameSettings;
+import main.engine.core.Scene;
+import main.engine.utils.ObjectPool;
+
+/**
+ * Scene.update dispatch cost with N trivial updatables, and nearest
+ * interactable queries in a town of N NPCs, pooled spawn/despawn
+ * next to N live objects, and AI-like updates on one thread or a pool.
+ */
+final class SceneBenchmark {
+
+    private SceneBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    /** Minimal updatable with a bit of state so the call can't be removed. */
+    private static class Counter implements Updatable {
+        double total;
+
+        @Override
+        public void update(double deltaTime) {
+            total += deltaTime;
+        }
+    }
+
+    /** Steers toward a point with a few hundred flops per update, like a small AI. */
+    private static class Seeker implements ParallelUpdatable {
+        double x;
+        double y;
+
+        Seeker(double x, double y){
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public void update(double deltaTime) {
+            for(int step = 0; step < 32; step++){
+                double dx = 500 - x;
+                double dy = 300 - y;
+                double length = Math.sqrt(dx * dx + dy * dy) + 1;
+                x += dx / length * deltaTime * 0.01;
+                y += dy / length * deltaTime * 0.01;
+            }
+        }
+    }
+
+    /** Standing NPC talking to the player within 64 px. */
+    private static class Npc implements Interactable {
+        private final int x;
+        private final int y;
+        private boolean focused;
+
+        Npc(int x, int y){
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override public int getX() { return x; }
+        @Override public int getY() { return y; }
+        @Override public int getWidth() { return 48; }
+        @Override public int getHeight() { return 96; }
+        @Override public int getInteractRange() { return 64; }
+        @Override public void setFocused(boolean focused) { this.focused = focused; }
+        @Override public boolean isFocused() { return focused; }
+        @Override public void interact() { focused = !focused; }
+        @Override public boolean isInteractable() { return true; }
+    }
+
+    static void register(BenchmarkRunner runner){
+        registerUpdate(runner);
+        registerSpawn(runner);
+        registerParallelUpdate(runner);
+
+        int townWidth = 200 * BenchmarkFixtures.TILE_SIZE;
+        int townHeight = 20 * BenchmarkFixtures.TILE_SIZE;
+        for(int count: new int[]{10, 100, 1000}){
+            Scene scene = new Scene(GameSettings.builder().tileSize(BenchmarkFixtures.TILE_SIZE).build());
+            Random random = new Random(count);
+            for(int i = 0; i < count; i++){
+                scene.addGameObject(new Npc(random.nextInt(townWidth), random.nextInt(townHeight)));
+            }
+            int[] cursor = {0};
+
+            runner.add("Scene.findNearestInteractable", "npcs=" + count, () -> {
+                int i = cursor[0] = cursor[0] * 1103515245 + 12345;
+                Interactable nearest = scene.findNearestInteractable(Math.floorMod(i >> 4, townWidth),
+                        Math.floorMod(i >> 16, townHeight));
+                return nearest == null ? 0 : 1;
+            });
+        }
+    }
+
+    private static void registerSpawn(BenchmarkRunner runner){
+        checkDespawnTwiceInUpdate();
+        for(int count: new int[]{10, 1_000}){
+            Scene scene = new Scene(GameSettings.builder().build());
+            for(int i = 0; i < count; i++){
+                scene.addGameObject(new Counter());
+            }
+            ObjectPool<Counter> pool = new ObjectPool<>(Counter::new, counter -> counter.total = 0, 64).prefill(16);
+
+            runner.add("Scene.spawn+despawn pooled", "live=" + count, () -> {
+                Counter bullet = scene.spawn(pool);
+                scene.despawn(bullet, pool);
+                return pool.getAvailable();
+            });
+        }
+    }
+
+    /** A bullet hitting two enemies in one tick is despawned twice: it must be pooled once. */
+    private static void checkDespawnTwiceInUpdate(){
+        Scene scene = new Scene(GameSettings.builder().build());
+        ObjectPool<Counter> pool = new ObjectPool<>(Counter::new, null, 64);
+        Counter bullet = scene.spawn(pool);
+        scene.addGameObject((Updatable) deltaTime -> {
+            scene.despawn(bullet, pool);
+            scene.despawn(bullet, pool);
+        });
+        scene.update(1.0);
+        if(pool.getAvailable() != 1){
+            throw new IllegalStateException("Bullet despawned twice in one update is pooled "
+                    + pool.getAvailable() + " times");
+        }
+    }
+
+    private static void registerParallelUpdate(BenchmarkRunner runner){
+        int count = 10_000;
+        for(boolean parallel: new boolean[]{false, true}){
+            Scene scene = new Scene(GameSettings.builder().build());
+            Random random = new Random(count);
+            Seeker last = null;
+            for(int i = 0; i < count; i++){
+                last = new Seeker(random.nextInt(1000), random.nextInt(600));
+                scene.addGameObject(last);
+            }
+            if(parallel) scene.setParallelUpdate(ForkJoinPool.commonPool(), 256);
+            Seeker probe = last;
+
+            runner.add("Scene.update seekers", (parallel ? "pool" : "sequential") + ", updatables=" + count, () -> {
+                scene.update(1.0);
+                return (long) probe.x;
+            });
+        }
+    }
+
+    private static void registerUpdate(BenchmarkRunner runner){
+        for(int count: new int[]{10, 1_000, 100_000}){
+            Scene scene = new Scene(GameSettings.builder().build());
+            Counter last = null;
+            for(int i = 0; i < count; i++){
+                last = new Counter();
+                scene.addGameObject(last);
+            }
+            Counter probe = last;
+
+            runner.add("Scene.update", "updatables=" + count, () -> {
+                scene.update(1.0);
+                return (long) probe.total;
+            });
+        }
+    }
+}
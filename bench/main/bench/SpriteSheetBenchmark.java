@@ -0,0 +1,26 @@
+package main.bench;
+
+import java.awt.Color;
+
+import main.engine.graphics.SpriteSheet;
+
+/**
+ * SpriteSheet.getFrame on a generated 8x8 sheet.
+ */
+final class SpriteSheetBenchmark {
+
+    private SpriteSheetBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void register(BenchmarkRunner runner){
+        // generated in memory, nothing is written next to the benchmark classes
+        SpriteSheet sheet = new SpriteSheet(BenchmarkFixtures.solidImage(256, 256, Color.MAGENTA), 32, 32);
+        int[] cursor = {0};
+
+        runner.add("SpriteSheet.getFrame", "grid=8x8", () -> {
+            int i = cursor[0] = (cursor[0] + 1) & 63;
+            return sheet.getFrame(i & 7, i >> 3).getWidth();
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package main.bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import main.engine.graphics.Camera;
+import main.engine.world.TileManager;
+
+/**
+ * TileManager.draw (both layers through drawLayer: whole map, camera-culled
+ * on heap and off-heap layers, and from the chunk cache) and isSolid lookups.
+ */
+final class TileManagerBenchmark {
+
+    private TileManagerBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void register(BenchmarkRunner runner){
+        int[][] sizes = { {40, 20}, {200, 100}, {500, 200} };
+
+        for(int[] size: sizes){
+            int cols = size[0];
+            int rows = size[1];
+            String params = "map=" + cols + "x" + rows;
+            TileManager tileManager = BenchmarkFixtures.tileManager(cols, rows, 42);
+
+            BufferedImage screen = new BufferedImage(BenchmarkFixtures.SCREEN_WIDTH,
+                    BenchmarkFixtures.SCREEN_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics2D = screen.createGraphics();
+            runner.add("TileManager.draw", params, () -> {
+                tileManager.draw(graphics2D);
+                return 1;
+            });
+
+            // same map seen through a screen-sized camera in the middle of the level
+            TileManager culled = BenchmarkFixtures.tileManager(cols, rows, 42);
+            Camera camera = new Camera(BenchmarkFixtures.SCREEN_WIDTH, BenchmarkFixtures.SCREEN_HEIGHT);
+            camera.setWorldBounds(culled.getMapWidth(), culled.getMapHeight());
+            camera.centerOn(culled.getMapWidth() / 2f, culled.getMapHeight() / 2f);
+            culled.setCamera(camera);
+            int offsetX = Math.round(camera.getX());
+            int offsetY = Math.round(camera.getY());
+            runner.add("TileManager.draw camera", params, () -> {
+                graphics2D.translate(-offsetX, -offsetY);
+                culled.draw(graphics2D);
+                graphics2D.translate(offsetX, offsetY);
+                return 1;
+            });
+
+            // same view with 16-bit ids in direct buffers
+            TileManager offHeap = BenchmarkFixtures.tileManager(cols, rows, 42, TileManager.LayerStorage.OFF_HEAP);
+            offHeap.setCamera(camera);
+            runner.add("TileManager.draw camera off-heap", params, () -> {
+                graphics2D.translate(-offsetX, -offsetY);
+                offHeap.draw(graphics2D);
+                graphics2D.translate(offsetX, offsetY);
+                return 1;
+            });
+
+            TileManager cached = BenchmarkFixtures.tileManager(cols, rows, 42);
+            cached.setCamera(camera);
+            cached.enableChunkCache();
+            runner.add("TileManager.draw chunks", params, () -> {
+                graphics2D.translate(-offsetX, -offsetY);
+                cached.draw(graphics2D);
+                graphics2D.translate(offsetX, offsetY);
+                return 1;
+            });
+
+            int[] cursor = {0};
+            runner.add("TileManager.isSolid", params, () -> {
+                // walk the map in a scattered order, including out-of-bounds cells
+                int i = cursor[0] = cursor[0] * 1103515245 + 12345;
+                int col = Math.floorMod(i >> 8, cols + 2) - 1;
+                int row = Math.floorMod(i >> 20, rows + 2) - 1;
+                return tileManager.isSolid(col, row) ? 1 : 0;
+            });
+        }
+    }
+}
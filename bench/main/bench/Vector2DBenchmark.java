@@ -0,0 +1,35 @@
+package main.bench;
+
+import main.engine.physics.Vector2D;
+
+/**
+ * Vector2D arithmetic, normalization and distance.
+ */
+final class Vector2DBenchmark {
+
+    private Vector2DBenchmark(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void register(BenchmarkRunner runner){
+        Vector2D a = new Vector2D(3, 4);
+        Vector2D b = new Vector2D(-1.5f, 2.25f);
+
+        runner.add("Vector2D.add", "", () -> {
+            a.add(b);
+            a.subtract(b);
+            return (long) a.x;
+        });
+
+        runner.add("Vector2D.normalize", "", () -> {
+            Vector2D v = a.copy();
+            v.normalize();
+            v.multiply(4);
+            return (long) v.x;
+        });
+
+        runner.add("Vector2D.distanceTo", "", () -> (long) a.distanceTo(b));
+
+        runner.add("Vector2D.dot", "", () -> (long) a.dot(b));
+    }
+}
@@ -9,6 +9,12 @@ import main.engine.physics.Vector2D;
  * Objects implementing this interface can be checked for collision
  * by the CollisionChecker without knowing their specific type.
  *
+ * A Collidable that is also Positioned is put in the scene's broadphase
+ * grid and only tested against boxes overlapping its getX/getY/getWidth/
+ * getHeight bounds: isSolidAt must never block outside of them. Objects
+ * blocking a larger or changing area should not implement Positioned (or
+ * report bounds covering that area); they are then tested on every check.
+ *
  * Examples : Door , Bridge , MovingPlatform
  */
 public interface Collidable {
@@ -5,4 +5,15 @@ import java.awt.*;
 public interface Drawable {
 
     void draw(Graphics2D graphics2D);
+
+    /**
+     * Draw with an interpolation factor between the previous and the current
+     * simulation tick (see GameSettings fixed timestep).
+     * Defaults to drawing the current state.
+     *
+     * @param alpha 0 = previous tick state, 1 = current tick state
+     */
+    default void draw(Graphics2D graphics2D, double alpha){
+        draw(graphics2D);
+    }
 }
@@ -1,5 +1,6 @@
 package main.engine.api;
 
+import main.engine.physics.IntersectionDetector;
 import main.engine.physics.Vector2D;
 
 import java.awt.*;
@@ -16,20 +17,16 @@ public interface Interactable extends Positioned {
      * Check if player is close enough to interact.
      */
     default boolean isPlayerNear(Vector2D playerPosition, int playerW, int playerH){
+        return isInRange(playerPosition.x + playerW / 2, playerPosition.y + playerH / 2);
+    }
 
-        Vector2D objectCenter = new Vector2D(
-                getX() + getWidth() / 2,
-                getY() + getHeight() / 2
-        );
-
-        Vector2D playerCenter = new Vector2D(
-                playerPosition.x + playerW / 2,
-                playerPosition.y + playerH / 2
-        );
-
-        double distance = objectCenter.distanceTo(playerCenter);
-
-        return distance < getInteractRange();
+    /**
+     * Check if a point (e.g. the player center) is within the interact range of the center.
+     */
+    default boolean isInRange(double x, double y){
+        int range = getInteractRange();
+        return IntersectionDetector.distanceSquared(getX() + getWidth() / 2, getY() + getHeight() / 2, x, y)
+                < (double) range * range;
     }
 
 
@@ -0,0 +1,23 @@
+package main.engine.api;
+
+/**
+ * ParallelUpdatable - Updatables that can run at the same time as the others of their group.
+ *
+ * When the Scene has a parallel update pool, the updatables of one group are
+ * split across its threads; groups run one after the other in ascending
+ * order, after the plain updatables. update() must then only change the
+ * object's own state and read state that no updatable of the same group
+ * writes. Adding or removing game objects from the scene stays allowed, and
+ * so do the scene queries (queryCollidables, findNearestInteractable, ...)
+ * and CollisionChecker.canMove; Scene.refreshCollidable, and changing the
+ * tiles or the map of the TileManager they collide with, do not.
+ *
+ * Without a pool they run on the update thread, in the same order.
+ */
+public interface ParallelUpdatable extends Updatable {
+
+    /** @return group of this updatable, read when it is added to the scene */
+    default int getUpdateGroup() {
+        return 0;
+    }
+}
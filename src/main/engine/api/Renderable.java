@@ -0,0 +1,22 @@
+package main.engine.api;
+
+import main.engine.core.RenderQueue;
+
+/**
+ * Renderable - Objects drawn through the scene render queue.
+ *
+ * Instead of drawing directly, a Renderable submits sprites and fills with a
+ * layer; the Scene sorts them by layer (submission order within a layer) and
+ * draws them after the plain drawables. Layers only order queued commands:
+ * every plain Drawable is drawn below every command, whatever its layer.
+ * A Renderable is not added to the scene drawables, even if it is Drawable.
+ */
+public interface Renderable {
+
+    /**
+     * Queue the draw commands of the current state. Called on the drawing thread.
+     *
+     * @param alpha interpolation factor, see Drawable.draw(Graphics2D, double)
+     */
+    void submit(RenderQueue queue, double alpha);
+}
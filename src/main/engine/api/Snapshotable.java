@@ -0,0 +1,20 @@
+package main.engine.api;
+
+import main.engine.core.RenderSnapshot;
+
+/**
+ * Snapshotable - Objects drawn from a snapshot of their state.
+ *
+ * After each update the Scene asks every Snapshotable to write what it looks
+ * like (sprite, position before and after the update, z) into a RenderSnapshot,
+ * and the renderer draws the latest published snapshot through its render
+ * queue, interpolated with the frame's alpha. The object's fields are then only read on the
+ * update thread, so drawing never sees half-updated positions.
+ *
+ * A Snapshotable is not added to the scene drawables, even if it is Drawable.
+ */
+public interface Snapshotable {
+
+    /** Write the draw data of the current state. Called on the update thread. */
+    void extract(RenderSnapshot snapshot);
+}
@@ -0,0 +1,85 @@
+package main.engine.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * FramePacer - Waits until the next frame deadline with sub-millisecond precision.
+ *
+ * Deadlines advance by exactly one period each frame, so rounding errors don't
+ * accumulate. When a frame runs late by less than a period the next one starts
+ * immediately to catch up; after a longer stall (GC, window drag, debugger) the
+ * schedule is resynchronised to now instead of bursting frames.
+ */
+public class FramePacer {
+
+    // Park this far before the deadline in LOW_LATENCY mode and spin the rest.
+    // Covers the wake-up latency of the OS scheduler (~1 ms on Windows).
+    private static final long SPIN_THRESHOLD_NANOS = 1_500_000;
+
+    private final long nanoPerFrame;
+    private final PacingMode mode;
+
+    private long nextFrameTime;
+    private long resyncCount;
+
+    public FramePacer(long nanoPerFrame, PacingMode mode){
+        if(nanoPerFrame <= 0){
+            throw new IllegalArgumentException("Frame period must be positive");
+        }
+        this.nanoPerFrame = nanoPerFrame;
+        this.mode = mode;
+        reset();
+    }
+
+    /** Restart the schedule from now (after a pause or when starting the loop). */
+    public void reset(){
+        nextFrameTime = System.nanoTime() + nanoPerFrame;
+    }
+
+    /**
+     * Block until the current frame deadline, then schedule the next one.
+     * Returns early if the thread is interrupted (interrupt flag is kept).
+     */
+    public void waitForNextFrame(){
+        long now = System.nanoTime();
+        long lateBy = now - nextFrameTime;
+
+        if(lateBy > nanoPerFrame){
+            // long stall: drop the missed frames and restart the schedule
+            nextFrameTime = now + nanoPerFrame;
+            resyncCount++;
+            return;
+        }
+
+        if(lateBy < 0){
+            waitUntil(nextFrameTime);
+        }
+        nextFrameTime += nanoPerFrame;
+    }
+
+    private void waitUntil(long deadline){
+        long parkMargin = mode == PacingMode.LOW_LATENCY ? SPIN_THRESHOLD_NANOS : 0;
+
+        // coarse wait - parkNanos can return early, so loop on the remaining time
+        long remaining = deadline - System.nanoTime();
+        while(remaining > parkMargin){
+            LockSupport.parkNanos(this, remaining - parkMargin);
+            if(Thread.currentThread().isInterrupted()) return;
+            remaining = deadline - System.nanoTime();
+        }
+
+        // fine wait - busy spin for the last sub-millisecond
+        while(deadline - System.nanoTime() > 0){
+            Thread.onSpinWait();
+        }
+    }
+
+    /** @return how many times the schedule was resynchronised after a stall */
+    public long getResyncCount(){
+        return resyncCount;
+    }
+
+    public PacingMode getMode(){
+        return mode;
+    }
+}
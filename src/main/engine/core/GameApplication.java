@@ -1,6 +1,8 @@
 package main.engine.core;
 
 
+import main.engine.profiling.FrameProfiler;
+import main.engine.profiling.PerformanceOverlay;
 import main.engine.window.GameWindow;
 
 public abstract class GameApplication {
@@ -29,14 +31,27 @@ public abstract class GameApplication {
         window = new GameWindow(settings);
         loop = new GameLoop(settings, sceneManager);
 
+        if(settings.isPerformanceOverlay()){
+            scene.addOverlay(new PerformanceOverlay(loop.getProfiler(), settings.getFps()));
+        }
+
         // show window
         window.show(scene);
+        sceneManager.setRenderer(window.getRenderer());
 
         onStart();
 
         loop.startGame();
     }
 
+    /**
+     * Creates a runner for the initial scene without building a window.
+     * The caller configures pacing/rendering and drives it with run().
+     */
+    public final HeadlessRunner createHeadlessRunner(){
+        return new HeadlessRunner(settings, createInitialScene());
+    }
+
     public final void stop(){
         onStop();
         loop.stopGame();
@@ -57,6 +72,11 @@ public abstract class GameApplication {
         return settings;
     }
 
+    /** @return frame timings of the running game, null before start() */
+    public FrameProfiler getFrameProfiler(){
+        return loop == null ? null : loop.getProfiler();
+    }
+
 
 }
 
@@ -1,6 +1,11 @@
 package main.engine.core;
 
 
+import java.util.concurrent.locks.LockSupport;
+
+import main.engine.profiling.FrameProfiler;
+import main.engine.utils.Log;
+
 // the Game Loop shouldn't know about the player
 // but it should know about the scene
 
@@ -15,11 +20,22 @@ public class GameLoop implements Runnable{
     
     private final SceneManager sceneManager; 
 
-    private Thread gameThread;
+    private final boolean fixedTimestep;
+    private final double nanoPerTick;
+    private final int maxUpdatesPerFrame;
+
+    private final FramePacer pacer;
+    private final FrameProfiler profiler = new FrameProfiler();
+
+    private volatile Thread gameThread;
 
     public GameLoop(GameSettings gameSettings,SceneManager sceneManager){
         this.sceneManager = sceneManager;
         this.nanoPerFrame = 1_000_000_000.0 / gameSettings.getFps();
+        this.fixedTimestep = gameSettings.isFixedTimestep();
+        this.nanoPerTick = 1_000_000_000.0 / gameSettings.getTickRate();
+        this.maxUpdatesPerFrame = gameSettings.getMaxUpdatesPerFrame();
+        this.pacer = new FramePacer(Math.round(nanoPerFrame), gameSettings.getPacingMode());
     }
 
     public void startGame(){
@@ -34,46 +50,106 @@ public class GameLoop implements Runnable{
 
     public void resumeGame(){
         this.paused = false;
+        wakeUp();
     }
 
     @Override
     public void run() {
-        double lastTime = System.nanoTime();
+        long lastTime = System.nanoTime();
+        pacer.reset();
 
-        double nextDrawTime = System.nanoTime() + nanoPerFrame;
+        // Simulation time not yet consumed by fixed ticks
+        double accumulator = 0;
 
         while(running){
 
             if(paused){
-                try{
-                    Thread.sleep(100);
-                }catch(InterruptedException e){
-                    Thread.currentThread().interrupt();
-                }
+                waitWhilePaused();
 
+                // don't count paused time as elapsed simulation time
+                lastTime = System.nanoTime();
+                pacer.reset();
                 continue;
             }
 
-            double currentTime = System.nanoTime();
-            double delta = (currentTime - lastTime) / nanoPerFrame;
+            long currentTime = System.nanoTime();
+            long elapsed = currentTime - lastTime;
             lastTime = currentTime;
 
-            sceneManager.update(delta);
-            sceneManager.render();
+            long updateEnd;
+            if(fixedTimestep){
+                accumulator = runFixedTicks(accumulator + elapsed);
+                updateEnd = System.nanoTime();
+                sceneManager.render(accumulator / nanoPerTick);
+            }else{
+                double delta = elapsed / nanoPerFrame;
+                sceneManager.update(delta);
+                updateEnd = System.nanoTime();
+                sceneManager.render();
+            }
+            long renderEnd = System.nanoTime();
+
+            pacer.waitForNextFrame();
 
-            try {
-                double remainingTime = (nextDrawTime - System.nanoTime()) / 1_000_000;
-                if (remainingTime < 0) remainingTime = 0;
-                Thread.sleep((long) remainingTime);
-                nextDrawTime += nanoPerFrame;
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            profiler.recordFrame(currentTime, updateEnd, renderEnd, System.nanoTime());
+        }
+    }
+
+    /** Park the game thread until resumed or stopped (no polling). */
+    private void waitWhilePaused(){
+        while(paused && running){
+            LockSupport.park(this);
+            if(Thread.interrupted()){
+                running = false;
             }
         }
     }
 
+    private void wakeUp(){
+        Thread thread = gameThread;
+        if(thread != null){
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Consumes the accumulated time in fixed ticks.
+     *
+     * Each tick passes the same delta (one tick expressed in frames, so updatables
+     * scaling by delta behave the same as in the variable loop). At most
+     * maxUpdatesPerFrame ticks are run; any larger backlog is dropped so a slow
+     * machine doesn't fall further behind every frame (spiral of death).
+     *
+     * @param accumulator simulation time to consume, in nanoseconds
+     * @return leftover time (less than one tick), used for the interpolation alpha
+     */
+    private double runFixedTicks(double accumulator){
+        double tickDelta = nanoPerTick / nanoPerFrame;
+        int updates = 0;
+
+        while(accumulator >= nanoPerTick && updates < maxUpdatesPerFrame){
+            sceneManager.update(tickDelta);
+            accumulator -= nanoPerTick;
+            updates++;
+        }
+
+        if(accumulator >= nanoPerTick){
+            long dropped = (long) (accumulator / nanoPerTick);
+            Log.debug("GameLoop behind, dropped " + dropped + " ticks");
+            accumulator -= dropped * nanoPerTick;
+        }
+
+        return accumulator;
+    }
+
     public void stopGame(){
         running = false;
+        wakeUp();
+    }
+
+    /** @return update/render/idle timings of the recent frames */
+    public FrameProfiler getProfiler(){
+        return profiler;
     }
     
 }
@@ -7,6 +7,12 @@ public class GameSettings {
     private int fps;
     private boolean resizable;
     private int tileSize=0;
+    private boolean fixedTimestep;
+    private int tickRate;
+    private int maxUpdatesPerFrame;
+    private RenderMode renderMode;
+    private boolean performanceOverlay;
+    private PacingMode pacingMode;
 
     // Private constructor (only builder can create)
     private GameSettings(Builder builder) {
@@ -17,6 +23,12 @@ public class GameSettings {
         this.fps = builder.fps;
         this.resizable = builder.resizable;
         this.tileSize = builder.tileSize;
+        this.fixedTimestep = builder.fixedTimestep;
+        this.tickRate = builder.tickRate;
+        this.maxUpdatesPerFrame = builder.maxUpdatesPerFrame;
+        this.renderMode = builder.renderMode;
+        this.performanceOverlay = builder.performanceOverlay;
+        this.pacingMode = builder.pacingMode;
     }
 
     // Getters
@@ -40,6 +52,34 @@ public class GameSettings {
 
     public int getTileSize(){ return this.tileSize; }
 
+    /** @return true if the simulation runs at a fixed tick rate independent of the render FPS */
+    public boolean isFixedTimestep() {
+        return fixedTimestep;
+    }
+
+    /** @return simulation ticks per second (defaults to the render FPS when not set) */
+    public int getTickRate() {
+        return tickRate > 0 ? tickRate : fps;
+    }
+
+    /** @return maximum number of simulation ticks run in a single frame before the backlog is dropped */
+    public int getMaxUpdatesPerFrame() {
+        return maxUpdatesPerFrame;
+    }
+
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    /** @return true if the frame time overlay is drawn on top of the scene */
+    public boolean isPerformanceOverlay() {
+        return performanceOverlay;
+    }
+
+    public PacingMode getPacingMode() {
+        return pacingMode;
+    }
+
     // Builder
     public static Builder builder() {
         return new Builder();
@@ -52,6 +92,12 @@ public class GameSettings {
         private int fps = 60;           // Default
         private boolean resizable = false;
         private int tileSize;
+        private boolean fixedTimestep = false;
+        private int tickRate = 0;       // 0 = same as fps
+        private int maxUpdatesPerFrame = 5;
+        private RenderMode renderMode = RenderMode.PASSIVE;
+        private boolean performanceOverlay = false;
+        private PacingMode pacingMode = PacingMode.POWER_SAVING;
         public Builder title(String title) {
             this.title = title;
             return this;
@@ -79,6 +125,63 @@ public class GameSettings {
             return this;
         }
 
+        /**
+         * Enables the fixed timestep loop: the scene is updated in steps of
+         * 1 / tickRate seconds and rendered with an interpolation alpha.
+         */
+        public Builder fixedTimestep(boolean fixedTimestep){
+            this.fixedTimestep = fixedTimestep;
+            return this;
+        }
+
+        /** Simulation ticks per second, independent of the render FPS. */
+        public Builder tickRate(int tickRate){
+            if(tickRate < 0){
+                throw new IllegalArgumentException("Tick rate cannot be negative");
+            }
+            this.tickRate = tickRate;
+            return this;
+        }
+
+        /** Caps catch-up ticks per frame to avoid the spiral of death on slow machines. */
+        public Builder maxUpdatesPerFrame(int maxUpdatesPerFrame){
+            if(maxUpdatesPerFrame < 1){
+                throw new IllegalArgumentException("Max updates per frame must be at least 1");
+            }
+            this.maxUpdatesPerFrame = maxUpdatesPerFrame;
+            return this;
+        }
+
+        /**
+         * ACTIVE draws from the game thread into a BufferStrategy,
+         * PASSIVE (default) relies on Swing repaints.
+         */
+        public Builder renderMode(RenderMode renderMode){
+            if(renderMode == null){
+                throw new IllegalArgumentException("Render mode cannot be null");
+            }
+            this.renderMode = renderMode;
+            return this;
+        }
+
+        /** Draw the frame time graph and phase statistics over the scene. */
+        public Builder performanceOverlay(boolean performanceOverlay){
+            this.performanceOverlay = performanceOverlay;
+            return this;
+        }
+
+        /**
+         * POWER_SAVING (default) sleeps between frames,
+         * LOW_LATENCY spins for the last sub-millisecond for precise frame times.
+         */
+        public Builder pacingMode(PacingMode pacingMode){
+            if(pacingMode == null){
+                throw new IllegalArgumentException("Pacing mode cannot be null");
+            }
+            this.pacingMode = pacingMode;
+            return this;
+        }
+
         public GameSettings build() {
             return new GameSettings(this);
         }
@@ -0,0 +1,115 @@
+package main.engine.core;
+
+import java.awt.image.BufferedImage;
+
+import main.engine.utils.Log;
+
+/**
+ * HeadlessRunner - Drives a scene without a window.
+ *
+ * Runs the scene at the fixed tick rate from GameSettings, either paced in real
+ * time or flat-out as fast as the CPU allows. Optionally renders every N ticks
+ * into an offscreen BufferedImage. Meant for soak tests, AI self-play and
+ * benchmarks on machines without a display (run with -Djava.awt.headless=true).
+ *
+ * usage:
+ *   HeadlessRunner runner = new HeadlessRunner(settings, new Level1Scene(settings));
+ *   runner.setRenderInterval(60);
+ *   runner.run(100_000);
+ */
+public class HeadlessRunner {
+
+    private final SceneManager sceneManager;
+    private final FramePacer pacer;
+    private final double tickDelta;
+    private final OffscreenRenderer offscreenRenderer;
+
+    private boolean paced = false;
+    private int renderInterval = 0;  // 0 = never render
+
+    private volatile boolean running = false;
+    private long ticksRun;
+
+    public HeadlessRunner(GameSettings gameSettings, Scene scene){
+        this.sceneManager = new SceneManager(scene);
+        this.pacer = new FramePacer(Math.round(1_000_000_000.0 / gameSettings.getTickRate()), gameSettings.getPacingMode());
+        // same delta unit as GameLoop: one tick expressed in frames
+        this.tickDelta = (double) gameSettings.getFps() / gameSettings.getTickRate();
+
+        this.offscreenRenderer = new OffscreenRenderer(gameSettings.getScreenWidth(), gameSettings.getScreenHeight());
+        scene.setSize(gameSettings.getScreenWidth(), gameSettings.getScreenHeight());
+        sceneManager.setRenderer(offscreenRenderer);
+    }
+
+    /** @param paced true to run ticks in real time, false to run them as fast as possible */
+    public void setPaced(boolean paced){
+        this.paced = paced;
+    }
+
+    /** @param renderInterval render into the frame buffer every N ticks (0 disables rendering) */
+    public void setRenderInterval(int renderInterval){
+        if(renderInterval < 0){
+            throw new IllegalArgumentException("Render interval cannot be negative");
+        }
+        this.renderInterval = renderInterval;
+    }
+
+    /**
+     * Run the given number of ticks on the calling thread.
+     * Returns early if stop() is called from another thread.
+     *
+     * @param ticks number of ticks to run (Long.MAX_VALUE to run until stopped)
+     * @return number of ticks actually run
+     */
+    public long run(long ticks){
+        running = true;
+        long startTime = System.nanoTime();
+        long tick = 0;
+        pacer.reset();
+
+        while(running && tick < ticks){
+            sceneManager.update(tickDelta);
+            tick++;
+
+            if(renderInterval > 0 && tick % renderInterval == 0){
+                sceneManager.render();
+            }
+
+            if(paced){
+                pacer.waitForNextFrame();
+                if(Thread.currentThread().isInterrupted()) running = false;
+            }
+        }
+
+        running = false;
+        ticksRun += tick;
+
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        Log.info("Headless run: " + tick + " ticks in " + String.format("%.3f", seconds) + "s ("
+                + String.format("%.0f", tick / Math.max(seconds, 1e-9)) + " ticks/s)");
+        return tick;
+    }
+
+    /** Stops a run in progress after the current tick. */
+    public void stop(){
+        running = false;
+    }
+
+    public boolean isRunning(){
+        return running;
+    }
+
+    /** @return total ticks run by this runner across all runs */
+    public long getTicksRun(){
+        return ticksRun;
+    }
+
+    /** @return the last frame rendered offscreen (blank if never rendered) */
+    public BufferedImage getFrameBuffer(){
+        return offscreenRenderer.getFrameBuffer();
+    }
+
+    public Scene getScene(){
+        return sceneManager.getCurrentScene();
+    }
+}
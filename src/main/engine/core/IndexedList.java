@@ -0,0 +1,190 @@
+package main.engine.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * IndexedList - List remembering the index of each element for O(1) removal.
+ *
+ * Removing swaps the last element into the hole, so the order of the
+ * remaining elements changes. To keep the order, removeLater leaves a null
+ * hole instead and compact closes every hole in one pass. Elements are
+ * compared by identity and added at most once. Indexes are kept in an open-addressing identity table, so
+ * adding and removing don't allocate. Used for the object lists of the Scene.
+ */
+class IndexedList<T> extends AbstractList<T> implements RandomAccess {
+
+    private Object[] elements = new Object[16];
+    private int size;
+    // null elements left by removeLater, closed by compact
+    private int holes;
+
+    // element -> index, linear probing, table at most half full
+    private Object[] keys = new Object[32];
+    private int[] values = new int[32];
+
+    /** @return false if the element is already in the list */
+    @Override
+    public boolean add(T element) {
+        if (slotOf(element) >= 0) return false;
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        put(element, size);
+        elements[size++] = element;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        int slot = slotOf(element);
+        if (slot < 0) return false;
+        if (holes > 0) {
+            compact();
+            slot = slotOf(element);
+        }
+        int index = values[slot];
+        deleteSlot(slot);
+
+        int last = --size;
+        if (index != last) {
+            Object moved = elements[last];
+            elements[index] = moved;
+            values[slotOf(moved)] = index;
+        }
+        elements[last] = null;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Remove the element but leave a null in its place, so the other elements
+     * keep their order and index until compact() is called.
+     *
+     * @return false if the element is not in the list
+     */
+    boolean removeLater(Object element) {
+        int slot = slotOf(element);
+        if (slot < 0) return false;
+        elements[values[slot]] = null;
+        deleteSlot(slot);
+        holes++;
+        modCount++;
+        return true;
+    }
+
+    /** Close the holes left by removeLater, keeping the order of the elements. */
+    void compact() {
+        if (holes == 0) return;
+        int target = 0;
+        for (int i = 0; i < size; i++) {
+            Object element = elements[i];
+            if (element == null) continue;
+            if (target != i) {
+                elements[target] = element;
+                values[slotOf(element)] = target;
+            }
+            target++;
+        }
+        Arrays.fill(elements, target, size, null);
+        size = target;
+        holes = 0;
+        modCount++;
+    }
+
+    @Override
+    public T remove(int index) {
+        T element = get(index);
+        remove(element);
+        return element;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return slotOf(element) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object element) {
+        int slot = slotOf(element);
+        return slot < 0 ? -1 : values[slot];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        return (T) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        Arrays.fill(keys, null);
+        size = 0;
+        holes = 0;
+        modCount++;
+    }
+
+    private int slotOf(Object element) {
+        if (element == null) return -1;
+        int mask = keys.length - 1;
+        for (int slot = hash(element) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == element) return slot;
+        }
+        return -1;
+    }
+
+    private void put(Object element, int index) {
+        int mask = keys.length - 1;
+        int slot = hash(element) & mask;
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = element;
+        values[slot] = index;
+    }
+
+    /** Empty a slot and shift back the following entries of the probe run. */
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        keys[slot] = null;
+        for (int next = (slot + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            Object key = keys[next];
+            int home = hash(key) & mask;
+            // move the entry back if the hole lies between its home slot and its slot
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = key;
+                values[slot] = values[next];
+                keys[next] = null;
+                slot = next;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new Object[capacity];
+        values = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int hash(Object element) {
+        int h = System.identityHashCode(element);
+        // spread the identity hash, low bits index the table
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,35 @@
+package main.engine.core;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * OffscreenRenderer - Draws the scene into a BufferedImage.
+ *
+ * Used when there is no window (headless runs, screenshots in soak tests).
+ */
+public class OffscreenRenderer implements Renderer {
+
+    private final BufferedImage frameBuffer;
+
+    public OffscreenRenderer(int width, int height){
+        this.frameBuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Override
+    public void render(Scene scene) {
+        Graphics2D graphics2D = frameBuffer.createGraphics();
+        try {
+            graphics2D.setColor(scene.getBackground());
+            graphics2D.fillRect(0, 0, frameBuffer.getWidth(), frameBuffer.getHeight());
+            scene.render(graphics2D);
+        } finally {
+            graphics2D.dispose();
+        }
+    }
+
+    /** @return the last rendered frame */
+    public BufferedImage getFrameBuffer(){
+        return frameBuffer;
+    }
+}
@@ -0,0 +1,13 @@
+package main.engine.core;
+
+/**
+ * How the game loop waits for the next frame.
+ */
+public enum PacingMode {
+
+    /** Park the thread for the whole remaining time. Low CPU usage, timer-resolution jitter. */
+    POWER_SAVING,
+
+    /** Park until shortly before the deadline, then spin for the last part. Precise, costs CPU. */
+    LOW_LATENCY
+}
@@ -0,0 +1,118 @@
+package main.engine.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import main.engine.api.ParallelUpdatable;
+
+/**
+ * ParallelUpdatePhase - The ParallelUpdatables of a Scene, by update group.
+ *
+ * Groups are kept sorted by id. Each group is updated in one fork-join
+ * invocation split in halves down to the threshold; invoke() only returns
+ * once every task is done, which is the barrier before the next group and
+ * before the scene resolves its spatial index.
+ */
+class ParallelUpdatePhase {
+
+    private static final int DEFAULT_THRESHOLD = 64;
+
+    private int[] groupIds = new int[4];
+    @SuppressWarnings("unchecked")
+    private IndexedList<ParallelUpdatable>[] groups = (IndexedList<ParallelUpdatable>[]) new IndexedList<?>[4];
+    private int groupCount;
+
+    private ForkJoinPool pool;
+    private int threshold = DEFAULT_THRESHOLD;
+
+    /** @param pool null to update on the calling thread */
+    void setPool(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = Math.max(1, threshold);
+    }
+
+    ForkJoinPool getPool() {
+        return pool;
+    }
+
+    boolean add(ParallelUpdatable updatable) {
+        int group = updatable.getUpdateGroup();
+        int index = Arrays.binarySearch(groupIds, 0, groupCount, group);
+        if (index < 0) {
+            index = -index - 1;
+            insertGroup(index, group);
+        }
+        return groups[index].add(updatable);
+    }
+
+    boolean remove(ParallelUpdatable updatable) {
+        int index = Arrays.binarySearch(groupIds, 0, groupCount, updatable.getUpdateGroup());
+        // empty groups are kept, scenes usually reuse the same few groups
+        return index >= 0 && groups[index].remove(updatable);
+    }
+
+    int size() {
+        int size = 0;
+        for (int i = 0; i < groupCount; i++) {
+            size += groups[i].size();
+        }
+        return size;
+    }
+
+    void update(double delta) {
+        for (int i = 0; i < groupCount; i++) {
+            IndexedList<ParallelUpdatable> group = groups[i];
+            int n = group.size();
+            if (pool != null && n >= threshold * 2) {
+                pool.invoke(new UpdateTask(group, delta, 0, n));
+            } else {
+                updateRange(group, delta, 0, n);
+            }
+        }
+    }
+
+    private static void updateRange(IndexedList<ParallelUpdatable> group, double delta, int from, int to) {
+        for (int i = from; i < to; i++) {
+            group.get(i).update(delta);
+        }
+    }
+
+    private void insertGroup(int index, int group) {
+        if (groupCount == groupIds.length) {
+            groupIds = Arrays.copyOf(groupIds, groupCount * 2);
+            groups = Arrays.copyOf(groups, groupCount * 2);
+        }
+        System.arraycopy(groupIds, index, groupIds, index + 1, groupCount - index);
+        System.arraycopy(groups, index, groups, index + 1, groupCount - index);
+        groupIds[index] = group;
+        groups[index] = new IndexedList<>();
+        groupCount++;
+    }
+
+    /** Splits a group in halves down to the threshold. */
+    @SuppressWarnings("serial")
+    private final class UpdateTask extends RecursiveAction {
+        private final IndexedList<ParallelUpdatable> group;
+        private final double delta;
+        private final int from;
+        private final int to;
+
+        UpdateTask(IndexedList<ParallelUpdatable> group, double delta, int from, int to) {
+            this.group = group;
+            this.delta = delta;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                updateRange(group, delta, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new UpdateTask(group, delta, from, middle), new UpdateTask(group, delta, middle, to));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package main.engine.core;
+
+/**
+ * How frames reach the screen.
+ */
+public enum RenderMode {
+
+    /** Scene.repaint() on the Swing EDT; repaints may be coalesced. */
+    PASSIVE,
+
+    /** Game thread draws into a page-flipped BufferStrategy owned by the GameWindow. */
+    ACTIVE
+}
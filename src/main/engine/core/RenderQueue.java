@@ -0,0 +1,302 @@
+package main.engine.core;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * RenderQueue - Draw commands collected for a frame, then sorted and drawn.
+ *
+ * Each command has a layer: lower layers are drawn first, and within a
+ * layer commands are drawn in submission order. With setBatchByState(true),
+ * commands of a layer are instead grouped by state (opacity, then image or
+ * fill color) so the Graphics2D state changes once per group instead of once
+ * per command; groups are ordered by image identity hash, which changes from
+ * one run to the next, so only enable it for layers whose sprites don't
+ * overlap (e.g. particles, tiles).
+ *
+ * Commands are sorted with a radix sort on a 64-bit key (layer, state when
+ * batching, submission index). The sort is skipped when the keys are already
+ * in order or are the same as last frame, e.g. when only positions changed.
+ * Sorting and queueing cost time on top of the drawing itself.
+ *
+ * Used on the drawing thread only.
+ */
+public class RenderQueue {
+
+    public static final int MIN_LAYER = Short.MIN_VALUE;
+    public static final int MAX_LAYER = Short.MAX_VALUE;
+
+    private static final int MAX_COMMANDS = 1 << 24;
+    private static final int INDEX_MASK = MAX_COMMANDS - 1;
+    private static final int OPAQUE = 255;
+
+    // key: layer (16 bits) | 255 - alpha (8) | fill (1) | state hash (15) | submission index (24),
+    // alpha, fill and state hash left at 0 unless batching by state
+    private static final int LAYER_SHIFT = 48;
+    private static final int ALPHA_SHIFT = 40;
+    private static final long FILL_BIT = 1L << 39;
+    private static final int STATE_SHIFT = 24;
+    private static final int STATE_MASK = 0x7FFF;
+    // the submission index bytes are already in order, only the upper five are sorted
+    private static final int FIRST_SORTED_BYTE = 3;
+
+    private BufferedImage[] images = new BufferedImage[256];
+    private Color[] colors = new Color[256];
+    private int[] x = new int[256];
+    private int[] y = new int[256];
+    private int[] width = new int[256];
+    private int[] height = new int[256];
+    // Part of the image drawn, sourceWidth -1 for the whole image
+    private int[] sourceX = new int[256];
+    private int[] sourceY = new int[256];
+    private int[] sourceWidth = new int[256];
+    private int[] sourceHeight = new int[256];
+    private int[] alpha = new int[256];
+    private long[] keys = new long[256];
+    private int count;
+
+    private long[] sorted = new long[256];
+    private long[] scratch = new long[256];
+    private long[] previousKeys = new long[256];
+    private int previousCount = -1;
+    private final int[] histogram = new int[256];
+
+    // AlphaComposite.getInstance allocates for any alpha but 1
+    private final Composite[] composites = new Composite[OPAQUE + 1];
+
+    private boolean batchByState;
+
+    private int lastCommandCount;
+    private int lastStateChanges;
+    private boolean lastSortSkipped;
+
+    /** Queue an opaque sprite. */
+    public void submitSprite(int layer, BufferedImage image, int spriteX, int spriteY, int spriteWidth, int spriteHeight) {
+        submitSprite(layer, image, spriteX, spriteY, spriteWidth, spriteHeight, 1f);
+    }
+
+    /**
+     * Queue a sprite drawn with the given opacity.
+     *
+     * @param opacity 0 (invisible) to 1 (opaque), rounded to 1/255
+     */
+    public void submitSprite(int layer, BufferedImage image, int spriteX, int spriteY, int spriteWidth, int spriteHeight,
+                             float opacity) {
+        if (image == null) return;
+        int index = add(layer, spriteX, spriteY, spriteWidth, spriteHeight, opacity);
+        images[index] = image;
+        if (batchByState) keys[index] |= (long) (System.identityHashCode(image) & STATE_MASK) << STATE_SHIFT;
+    }
+
+    /**
+     * Queue an opaque sprite drawn from a region of the image, e.g. the used
+     * part of a reused buffer, without creating a sub-image.
+     */
+    public void submitSprite(int layer, BufferedImage image, int spriteX, int spriteY, int spriteWidth, int spriteHeight,
+                             int regionX, int regionY, int regionWidth, int regionHeight) {
+        if (image == null) return;
+        int index = add(layer, spriteX, spriteY, spriteWidth, spriteHeight, 1f);
+        images[index] = image;
+        sourceX[index] = regionX;
+        sourceY[index] = regionY;
+        sourceWidth[index] = regionWidth;
+        sourceHeight[index] = regionHeight;
+        if (batchByState) keys[index] |= (long) (System.identityHashCode(image) & STATE_MASK) << STATE_SHIFT;
+    }
+
+    /** Queue a rectangle filled with the given color (its alpha included). */
+    public void submitRect(int layer, Color color, int rectX, int rectY, int rectWidth, int rectHeight) {
+        int index = add(layer, rectX, rectY, rectWidth, rectHeight, 1f);
+        colors[index] = color;
+        if (batchByState) keys[index] |= FILL_BIT | (long) (color.hashCode() & STATE_MASK) << STATE_SHIFT;
+    }
+
+    private int add(int layer, int commandX, int commandY, int commandWidth, int commandHeight, float opacity) {
+        if (layer < MIN_LAYER || layer > MAX_LAYER) {
+            throw new IllegalArgumentException("Layer " + layer + " out of range " + MIN_LAYER + ".." + MAX_LAYER);
+        }
+        if (count == keys.length) grow();
+        int index = count++;
+        int quantized = Math.round(Math.max(0f, Math.min(1f, opacity)) * OPAQUE);
+        x[index] = commandX;
+        y[index] = commandY;
+        width[index] = commandWidth;
+        height[index] = commandHeight;
+        sourceWidth[index] = -1;
+        alpha[index] = quantized;
+        keys[index] = (long) (layer - MIN_LAYER) << LAYER_SHIFT | index;
+        // opaque commands first in a layer, they are the most common
+        if (batchByState) keys[index] |= (long) (OPAQUE - quantized) << ALPHA_SHIFT;
+        return index;
+    }
+
+    /**
+     * Group the commands of a layer by state instead of keeping their
+     * submission order. Fewer state changes, but overlapping sprites of a
+     * layer may be drawn in a different order from one run to the next.
+     * Applies to the commands submitted from now on.
+     */
+    public void setBatchByState(boolean batchByState) {
+        this.batchByState = batchByState;
+    }
+
+    public boolean isBatchByState() {
+        return batchByState;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Drop the queued commands without drawing them. */
+    public void clear() {
+        Arrays.fill(images, 0, count, null);
+        Arrays.fill(colors, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * Sort the queued commands and draw them, then empty the queue.
+     * The composite and color of the graphics are restored afterwards.
+     */
+    public void flush(Graphics2D g2d) {
+        sort();
+        Composite savedComposite = g2d.getComposite();
+        Color savedColor = g2d.getColor();
+
+        int currentAlpha = -1;
+        Color currentColor = null;
+        int stateChanges = 0;
+        for (int i = 0; i < count; i++) {
+            int index = (int) (sorted[i] & INDEX_MASK);
+            int commandAlpha = alpha[index];
+            if (commandAlpha == 0) continue;
+            if (commandAlpha != currentAlpha) {
+                g2d.setComposite(commandAlpha == OPAQUE ? savedComposite : composite(commandAlpha));
+                currentAlpha = commandAlpha;
+                stateChanges++;
+            }
+            BufferedImage image = images[index];
+            if (image != null) {
+                if (sourceWidth[index] < 0) {
+                    g2d.drawImage(image, x[index], y[index], width[index], height[index], null);
+                } else {
+                    int left = x[index], top = y[index], regionX = sourceX[index], regionY = sourceY[index];
+                    g2d.drawImage(image, left, top, left + width[index], top + height[index],
+                            regionX, regionY, regionX + sourceWidth[index], regionY + sourceHeight[index], null);
+                }
+            } else {
+                Color color = colors[index];
+                if (!color.equals(currentColor)) {
+                    g2d.setColor(color);
+                    currentColor = color;
+                    stateChanges++;
+                }
+                g2d.fillRect(x[index], y[index], width[index], height[index]);
+            }
+        }
+
+        g2d.setComposite(savedComposite);
+        g2d.setColor(savedColor);
+        lastCommandCount = count;
+        lastStateChanges = stateChanges;
+        clear();
+    }
+
+    private void sort() {
+        if (sorted.length < count) {
+            sorted = new long[keys.length];
+            scratch = new long[keys.length];
+        }
+        lastSortSkipped = true;
+        if (count == previousCount && Arrays.equals(keys, 0, count, previousKeys, 0, count)) {
+            // same layers and states as last frame: last frame's order is still valid
+            return;
+        }
+        if (previousKeys.length < keys.length) previousKeys = new long[keys.length];
+        System.arraycopy(keys, 0, previousKeys, 0, count);
+        previousCount = count;
+        System.arraycopy(keys, 0, sorted, 0, count);
+
+        boolean inOrder = true;
+        for (int i = 1; i < count && inOrder; i++) {
+            // keys are unsigned, layers from 0 up set the sign bit
+            inOrder = Long.compareUnsigned(keys[i - 1], keys[i]) <= 0;
+        }
+        if (inOrder) return;
+
+        lastSortSkipped = false;
+        radixSort();
+    }
+
+    /** Stable LSD radix sort of the upper key bytes, skipping bytes every key shares. */
+    private void radixSort() {
+        long[] source = sorted;
+        long[] target = scratch;
+        for (int b = FIRST_SORTED_BYTE; b < Long.BYTES; b++) {
+            int shift = b * 8;
+            Arrays.fill(histogram, 0);
+            for (int i = 0; i < count; i++) {
+                histogram[(int) (source[i] >>> shift) & 0xFF]++;
+            }
+            if (histogram[(int) (source[0] >>> shift) & 0xFF] == count) continue;
+
+            int offset = 0;
+            for (int v = 0; v < 256; v++) {
+                int n = histogram[v];
+                histogram[v] = offset;
+                offset += n;
+            }
+            for (int i = 0; i < count; i++) {
+                long key = source[i];
+                target[histogram[(int) (key >>> shift) & 0xFF]++] = key;
+            }
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+        sorted = source;
+        scratch = target;
+    }
+
+    private Composite composite(int quantized) {
+        Composite composite = composites[quantized];
+        if (composite == null) {
+            composite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, quantized / (float) OPAQUE);
+            composites[quantized] = composite;
+        }
+        return composite;
+    }
+
+    private void grow() {
+        if (count == MAX_COMMANDS) {
+            throw new IllegalStateException("Render queue full: " + MAX_COMMANDS + " commands");
+        }
+        int capacity = Math.min(keys.length * 2, MAX_COMMANDS);
+        images = Arrays.copyOf(images, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        sourceX = Arrays.copyOf(sourceX, capacity);
+        sourceY = Arrays.copyOf(sourceY, capacity);
+        sourceWidth = Arrays.copyOf(sourceWidth, capacity);
+        sourceHeight = Arrays.copyOf(sourceHeight, capacity);
+        alpha = Arrays.copyOf(alpha, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+
+    /** @return commands drawn by the last flush */
+    public int getLastCommandCount() { return lastCommandCount; }
+
+    /** @return composite and color changes made by the last flush */
+    public int getLastStateChanges() { return lastStateChanges; }
+
+    /** @return true if the last flush reused the submission or previous order */
+    public boolean isLastSortSkipped() { return lastSortSkipped; }
+}
@@ -0,0 +1,133 @@
+package main.engine.core;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * RenderSnapshot - Draw data of one update: sprites with position, size and z.
+ *
+ * Filled on the update thread by Snapshotable objects, then read by the
+ * renderer once published by a RenderSnapshotBuffer. Sprites are kept in
+ * primitive columns and reused from one update to the next. Each sprite has
+ * its position before and after the update, so the renderer can interpolate
+ * between them with the frame's alpha.
+ */
+public final class RenderSnapshot {
+
+    private BufferedImage[] images = new BufferedImage[64];
+    private float[] previousX = new float[64];
+    private float[] previousY = new float[64];
+    private float[] x = new float[64];
+    private float[] y = new float[64];
+    private int[] width = new int[64];
+    private int[] height = new int[64];
+    private int[] z = new int[64];
+    private int count;
+
+    // Publication order, set by the buffer
+    long sequence;
+
+    /**
+     * Add a sprite drawn at the given world position, not interpolated.
+     *
+     * @param z layer, higher is drawn on top (RenderQueue.MIN_LAYER..MAX_LAYER)
+     */
+    public void addSprite(BufferedImage image, float spriteX, float spriteY, int spriteWidth, int spriteHeight, int spriteZ) {
+        addSprite(image, spriteX, spriteY, spriteX, spriteY, spriteWidth, spriteHeight, spriteZ);
+    }
+
+    /**
+     * Add a sprite moving from its position before the update to its current
+     * one; it is drawn in between depending on the interpolation alpha.
+     *
+     * @param z layer, higher is drawn on top (RenderQueue.MIN_LAYER..MAX_LAYER)
+     */
+    public void addSprite(BufferedImage image, float fromX, float fromY, float spriteX, float spriteY,
+                          int spriteWidth, int spriteHeight, int spriteZ) {
+        if (count == images.length) grow();
+        images[count] = image;
+        previousX[count] = fromX;
+        previousY[count] = fromY;
+        x[count] = spriteX;
+        y[count] = spriteY;
+        width[count] = spriteWidth;
+        height[count] = spriteHeight;
+        z[count] = spriteZ;
+        count++;
+    }
+
+    public int size() { return count; }
+    public BufferedImage getImage(int i) { return images[i]; }
+    public float getX(int i) { return x[i]; }
+    public float getY(int i) { return y[i]; }
+    public float getPreviousX(int i) { return previousX[i]; }
+    public float getPreviousY(int i) { return previousY[i]; }
+    public int getWidth(int i) { return width[i]; }
+    public int getHeight(int i) { return height[i]; }
+    public int getZ(int i) { return z[i]; }
+
+    /** @return order of publication, higher is newer */
+    public long getSequence() { return sequence; }
+
+    /** Draw the sprites at their current position, in the order they were added. */
+    public void draw(Graphics2D g2d) {
+        draw(g2d, 1.0);
+    }
+
+    /**
+     * Draw the sprites in the order they were added.
+     *
+     * @param alpha 0 for the position before the update, 1 for the current one
+     */
+    public void draw(Graphics2D g2d, double alpha) {
+        float t = (float) alpha;
+        for (int i = 0; i < count; i++) {
+            BufferedImage image = images[i];
+            if (image != null) {
+                g2d.drawImage(image, interpolate(previousX[i], x[i], t), interpolate(previousY[i], y[i], t),
+                        width[i], height[i], null);
+            }
+        }
+    }
+
+    /** Queue the sprites at their current position, with their z as layer. */
+    public void submit(RenderQueue queue) {
+        submit(queue, 1.0);
+    }
+
+    /**
+     * Queue the sprites, with their z as layer.
+     *
+     * @param alpha 0 for the position before the update, 1 for the current one
+     */
+    public void submit(RenderQueue queue, double alpha) {
+        float t = (float) alpha;
+        for (int i = 0; i < count; i++) {
+            queue.submitSprite(z[i], images[i], interpolate(previousX[i], x[i], t), interpolate(previousY[i], y[i], t),
+                    width[i], height[i]);
+        }
+    }
+
+    private static int interpolate(float from, float to, float t) {
+        return Math.round(from + (to - from) * t);
+    }
+
+    void clear() {
+        // drop the image references so removed sprites can be collected
+        Arrays.fill(images, 0, count, null);
+        count = 0;
+    }
+
+    private void grow() {
+        int capacity = images.length * 2;
+        images = Arrays.copyOf(images, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        z = Arrays.copyOf(z, capacity);
+    }
+}
@@ -0,0 +1,45 @@
+package main.engine.core;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * RenderSnapshotBuffer - Hands snapshots from the update thread to the renderer.
+ *
+ * Triple buffered without locks: the writer fills its back snapshot and
+ * swaps it with the ready one; the reader swaps its front snapshot with the
+ * ready one when a newer one was published. Neither side waits, so the next
+ * update can run while the previous snapshot is drawn.
+ *
+ * One writer thread and one reader thread.
+ */
+public class RenderSnapshotBuffer {
+
+    private final AtomicReference<RenderSnapshot> ready = new AtomicReference<>(new RenderSnapshot());
+    private RenderSnapshot back = new RenderSnapshot();
+    private RenderSnapshot front = new RenderSnapshot();
+    private long sequence;
+
+    /** @return the empty snapshot to fill, on the writer thread */
+    public RenderSnapshot beginWrite() {
+        back.clear();
+        return back;
+    }
+
+    /** Make the snapshot returned by beginWrite the latest one. */
+    public void publish() {
+        back.sequence = ++sequence;
+        back = ready.getAndSet(back);
+    }
+
+    /**
+     * @return the latest published snapshot, on the reader thread. It stays
+     *         valid until the next call to this method.
+     */
+    public RenderSnapshot acquire() {
+        // the writer only ever replaces ready with a newer snapshot
+        if (ready.get().sequence > front.sequence) {
+            front = ready.getAndSet(front);
+        }
+        return front;
+    }
+}
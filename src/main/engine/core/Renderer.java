@@ -0,0 +1,14 @@
+package main.engine.core;
+
+/**
+ * Renderer - Presents a scene to the screen.
+ *
+ * Called by the game loop once per frame after the scene was updated.
+ * The passive implementation only schedules a Swing repaint, active
+ * implementations draw directly from the game thread.
+ */
+@FunctionalInterface
+public interface Renderer {
+
+    void render(Scene scene);
+}
@@ -3,12 +3,21 @@ package main.engine.core;
 import main.engine.api.Collidable;
 import main.engine.api.Drawable;
 import main.engine.api.Interactable;
+import main.engine.api.ParallelUpdatable;
+import main.engine.api.Positioned;
+import main.engine.api.Renderable;
+import main.engine.api.Snapshotable;
 import main.engine.api.Updatable;
+import main.engine.physics.IntersectionDetector;
+import main.engine.physics.SpatialGrid;
+import main.engine.utils.ObjectPool;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 // the scene is the container of game objects inside a gameloop
 // this allows the levels to have multiple scenes
@@ -29,42 +38,479 @@ public class Scene extends JPanel {
 
     protected GameSettings gameSettings;
 
+    // Broadphase for collidables with bounds (Positioned), the others are always tested
+    private static final int COLLISION_CELL_TILES = 4;
+    private static final int DEFAULT_COLLISION_CELL_SIZE = 128;
+    private final SpatialGrid<Collidable> collisionGrid;
+    // Largest collidable move of the last tick, at most one cell: bounds in the grid lag behind during update()
+    private int collisionPadding;
+    private final List<Collidable> unboundedCollidables = new IndexedList<>();
+
+    // Same broadphase for proximity queries, with the largest interact range to search around a point
+    private final SpatialGrid<Interactable> interactionGrid;
+    private int maxInteractRange;
+    // Largest interactable move of the last tick, at most one cell, like collisionPadding
+    private int interactionPadding;
+    // Per thread, ParallelUpdatables may search for interactables concurrently
+    private final ThreadLocal<List<Interactable>> interactableCandidateLists = ThreadLocal.withInitial(ArrayList::new);
+
+    // Drawn after the scene (debug info, performance overlay)
+    private final List<Drawable> overlays = new ArrayList<>();
+
+    // Interpolation factor for the frame being drawn (written by the game loop, read when painting)
+    private volatile double interpolationAlpha = 1.0;
+
     public Scene(GameSettings gameSettings){
-        this.drawables = new ArrayList<>();
-        this.updatables = new ArrayList<>();
-        this.interactables = new ArrayList<>();
-        this.collidables = new ArrayList<>();
+        // indexed lists: O(1) removal, which moves the last object into the hole (drawables compact instead)
+        this.drawables = new IndexedList<>();
+        this.updatables = new IndexedList<>();
+        this.interactables = new IndexedList<>();
+        this.collidables = new IndexedList<>();
         this.gameSettings = gameSettings;
+        int tileSize = gameSettings != null ? gameSettings.getTileSize() : 0;
+        int cellSize = tileSize > 0 ? tileSize * COLLISION_CELL_TILES : DEFAULT_COLLISION_CELL_SIZE;
+        this.collisionGrid = new SpatialGrid<>(cellSize);
+        this.interactionGrid = new SpatialGrid<>(cellSize);
     }
 
+    // Objects submitting layered commands, sorted and drawn after the drawables
+    private final List<Renderable> renderables = new IndexedList<>();
+
+    // Guards structural changes of drawables and renderables against the copy made by draw()
+    private final Object renderLock = new Object();
+    private int renderListVersion;
+    // Copies iterated by draw(), owned by the drawing thread
+    private int drawnVersion = -1;
+    private Drawable[] drawnDrawables = new Drawable[16];
+    private int drawnDrawableCount;
+    private Renderable[] drawnRenderables = new Renderable[16];
+    private int drawnRenderableCount;
+    private final RenderQueue renderQueue = new RenderQueue();
+
+    // Objects drawn from the snapshot published after each update
+    private final List<Snapshotable> snapshotables = new IndexedList<>();
+    private final RenderSnapshotBuffer snapshots = new RenderSnapshotBuffer();
+
+    // Updatables that may run concurrently, by group, after the plain updatables
+    private final ParallelUpdatePhase parallelUpdatables = new ParallelUpdatePhase();
+
+    // Adds and removals requested during update, applied once the updatables have run
+    private final SceneCommandBuffer commands = new SceneCommandBuffer();
+    private volatile boolean updating;
+    // Set while the queued commands are applied: drawables and renderables are compacted once afterwards
+    private boolean flushingCommands;
+
+    /**
+     * Add an object to the lists matching its interfaces (each list at most once).
+     * During update() the add is queued and applied at the end of the update.
+     */
     public void addGameObject(Object object){
-        if(object instanceof Updatable updatable)
+        if(updating){
+            commands.queueAdd(object);
+            return;
+        }
+        if(object instanceof ParallelUpdatable parallelUpdatable)
+            parallelUpdatables.add(parallelUpdatable);
+        else if(object instanceof Updatable updatable)
             updatables.add(updatable);
-        if(object instanceof Drawable drawable)
-            drawables.add(drawable);
+        if(object instanceof Snapshotable snapshotable)
+            snapshotables.add(snapshotable);
+        else if(object instanceof Renderable renderable)
+            addDrawn(renderables, renderable);
+        else if(object instanceof Drawable drawable)
+            addDrawn(drawables, drawable);
         if(object instanceof Interactable interactable)
-            interactables.add(interactable);
+            addInteractable(interactable);
         if(object instanceof Collidable collidable)
-            collidables.add(collidable);
+            addCollidable(collidable);
+    }
+
+    /**
+     * Remove an object from every list it was added to. Drawables and
+     * renderables keep their drawing order; in the other lists the last object
+     * takes its place in constant time, so their order changes.
+     * During update() the removal is queued and applied at the end of the update.
+     *
+     * @return true if a list held the object; false if none did, or during
+     *         update() since the removal is only queued
+     */
+    public boolean removeGameObject(Object object){
+        if(updating){
+            commands.queueRemove(object);
+            return false;
+        }
+        boolean removed = false;
+        if(object instanceof ParallelUpdatable parallelUpdatable)
+            removed = parallelUpdatables.remove(parallelUpdatable);
+        else if(object instanceof Updatable updatable)
+            removed = updatables.remove(updatable);
+        if(object instanceof Snapshotable snapshotable)
+            removed |= snapshotables.remove(snapshotable);
+        else if(object instanceof Renderable renderable)
+            removed |= removeInOrder(renderables, renderable);
+        else if(object instanceof Drawable drawable)
+            removed |= removeInOrder(drawables, drawable);
+        if(object instanceof Interactable interactable){
+            removed |= interactables.remove(interactable);
+            interactionGrid.remove(interactable);
+        }
+        if(object instanceof Collidable collidable){
+            removed |= collidables.remove(collidable);
+            if(!collisionGrid.remove(collidable)) unboundedCollidables.remove(collidable);
+        }
+        return removed;
+    }
+
+    /**
+     * Take an object from the pool and add it to the scene.
+     * The caller positions it; the pool's reset hook cleared its previous life.
+     */
+    public <T> T spawn(ObjectPool<T> pool){
+        T object = pool.acquire();
+        addGameObject(object);
+        return object;
+    }
+
+    /**
+     * Remove a pooled object from the scene and give it back to its pool.
+     * It is only released if it was in the scene, so despawning it twice
+     * doesn't put it twice in the pool. During update() both are queued: the
+     * object stays untouched in the scene until the end of the update, then
+     * is removed and released.
+     */
+    public <T> void despawn(T object, ObjectPool<T> pool){
+        if(updating){
+            commands.queueDespawn(object, pool);
+            return;
+        }
+        if(removeGameObject(object)) pool.release(object);
     }
 
+    private <T> void addDrawn(List<T> list, T object){
+        synchronized(renderLock){
+            if(list.add(object)) renderListVersion++;
+        }
+    }
+
+    private boolean removeInOrder(List<?> list, Object object){
+        synchronized(renderLock){
+            if(list instanceof IndexedList<?> indexed){
+                // while flushing, the holes are closed once after the last removal
+                if(!indexed.removeLater(object)) return false;
+                if(!flushingCommands) indexed.compact();
+            } else if(!list.remove(object)){
+                return false;
+            }
+            renderListVersion++;
+            return true;
+        }
+    }
+
+    private void compactInOrder(List<?> list){
+        if(list instanceof IndexedList<?> indexed) indexed.compact();
+    }
+
+    private void addInteractable(Interactable interactable){
+        if(!interactables.add(interactable)) return;
+        interactionGrid.insert(interactable, interactable.getX(), interactable.getY(), interactable.getWidth(), interactable.getHeight());
+        maxInteractRange = Math.max(maxInteractRange, interactable.getInteractRange());
+    }
+
+    private void addCollidable(Collidable collidable){
+        if(!collidables.add(collidable)) return;
+        if(collidable instanceof Positioned positioned){
+            collisionGrid.insert(collidable, positioned.getX(), positioned.getY(), positioned.getWidth(), positioned.getHeight());
+        } else {
+            unboundedCollidables.add(collidable);
+        }
+    }
+
+    /**
+     * Update every updatable, then the ParallelUpdatables group by group, then
+     * apply the adds and removals they requested, refresh the spatial index and
+     * publish the render snapshot. Every parallel update has returned before
+     * the scene goes on with the next group or the spatial index.
+     */
     public void update(double delta){
-        for(Updatable updatable: updatables){
-            updatable.update(delta);
+        updating = true;
+        try{
+            for(int i = 0, n = updatables.size(); i < n; i++){
+                updatables.get(i).update(delta);
+            }
+            parallelUpdatables.update(delta);
+        } finally {
+            updating = false;
+        }
+        // draw() never copies the lists with holes in them
+        synchronized(renderLock){
+            flushingCommands = true;
+            try{
+                commands.flush(this);
+            } finally {
+                flushingCommands = false;
+                compactInOrder(drawables);
+                compactInOrder(renderables);
+            }
+        }
+        refreshSpatialIndex();
+        publishSnapshot();
+    }
+
+    /**
+     * Split each group of ParallelUpdatables across a fork-join pool when it
+     * has at least twice threshold updatables. Removals and adds requested
+     * from the pool threads are applied at the end of the update, in no
+     * particular order between threads.
+     *
+     * @param pool e.g. ForkJoinPool.commonPool(), null to update on the calling thread
+     * @param threshold minimum updatables per task, higher for cheap updates
+     */
+    public void setParallelUpdate(ForkJoinPool pool, int threshold){
+        parallelUpdatables.setPool(pool, threshold);
+    }
+
+    /** @return number of ParallelUpdatables in the scene */
+    public int getParallelUpdatableCount(){ return parallelUpdatables.size(); }
+
+    /**
+     * Extract the draw data of every Snapshotable and make it the snapshot
+     * drawn from now on. Called after each update; call it after changing
+     * snapshotables outside of update() (e.g. when building the scene).
+     */
+    public void publishSnapshot(){
+        RenderSnapshot snapshot = snapshots.beginWrite();
+        for(int i = 0, n = snapshotables.size(); i < n; i++){
+            snapshotables.get(i).extract(snapshot);
         }
+        snapshots.publish();
     }
 
+    /** @return the snapshots exchanged with the renderer, for custom renderers */
+    public RenderSnapshotBuffer getRenderSnapshots(){ return this.snapshots; }
+
+    /**
+     * Move the collidables with bounds and the interactables to their current cells.
+     * Called after each update; call it after moving them outside of update().
+     */
+    public void refreshSpatialIndex(){
+        for(int i = 0, n = collidables.size(); i < n; i++){
+            Collidable collidable = collidables.get(i);
+            if(collidable instanceof Positioned positioned){
+                collisionGrid.update(collidable, positioned.getX(), positioned.getY(), positioned.getWidth(), positioned.getHeight());
+            }
+        }
+        collisionPadding = takePadding(collisionGrid);
+        int range = 0;
+        for(int i = 0, n = interactables.size(); i < n; i++){
+            Interactable interactable = interactables.get(i);
+            interactionGrid.update(interactable, interactable.getX(), interactable.getY(), interactable.getWidth(), interactable.getHeight());
+            range = Math.max(range, interactable.getInteractRange());
+        }
+        maxInteractRange = range;
+        interactionPadding = takePadding(interactionGrid);
+    }
+
+    /**
+     * Move one collidable to its current cells right away, e.g. after a
+     * teleport or when it moves faster than during the previous tick.
+     */
+    public void refreshCollidable(Collidable collidable){
+        if(collidable instanceof Positioned positioned
+                && collisionGrid.update(collidable, positioned.getX(), positioned.getY(), positioned.getWidth(), positioned.getHeight())){
+            collisionPadding = Math.max(collisionPadding, takePadding(collisionGrid));
+        }
+    }
+
+    /**
+     * Largest move since the last call, capped at one cell: a jump further
+     * than that is a teleport, refreshed explicitly (refreshCollidable,
+     * refreshSpatialIndex) rather than padding every query of the next tick
+     * by the size of the map.
+     */
+    private static int takePadding(SpatialGrid<?> grid){
+        return Math.min(grid.takeLargestMove(), grid.getCellSize());
+    }
+
+    /**
+     * Closest interactable whose interact range contains the point
+     * (see Interactable.isInRange), skipping those not currently interactable.
+     *
+     * @param x point in world coordinates, usually the player center
+     * @return the nearest interactable in range, null if none
+     */
+    public Interactable findNearestInteractable(double x, double y){
+        List<Interactable> interactableCandidates = queryInteractableCandidates(x, y);
+        Interactable nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for(int i = 0, n = interactableCandidates.size(); i < n; i++){
+            Interactable interactable = interactableCandidates.get(i);
+            if(!interactable.isInteractable() || !interactable.isInRange(x, y)) continue;
+            double distance = IntersectionDetector.distanceSquared(interactable.getX() + interactable.getWidth() / 2,
+                    interactable.getY() + interactable.getHeight() / 2, x, y);
+            if(distance < nearestDistance){
+                nearestDistance = distance;
+                nearest = interactable;
+            }
+        }
+        interactableCandidates.clear();
+        return nearest;
+    }
+
+    /**
+     * Add to out every interactable whose interact range contains the point,
+     * skipping those not currently interactable. Order is unspecified.
+     *
+     * @return number of interactables added
+     */
+    public int findInteractablesInRange(double x, double y, List<Interactable> out){
+        List<Interactable> interactableCandidates = queryInteractableCandidates(x, y);
+        int found = 0;
+        for(int i = 0, n = interactableCandidates.size(); i < n; i++){
+            Interactable interactable = interactableCandidates.get(i);
+            if(interactable.isInteractable() && interactable.isInRange(x, y)){
+                out.add(interactable);
+                found++;
+            }
+        }
+        interactableCandidates.clear();
+        return found;
+    }
+
+    private List<Interactable> queryInteractableCandidates(double x, double y){
+        List<Interactable> interactableCandidates = interactableCandidateLists.get();
+        interactableCandidates.clear();
+        // any interactable in range has its bounds within maxInteractRange of the point,
+        // padded by how far they may have moved since the grid was refreshed
+        int reach = maxInteractRange + interactionPadding;
+        int left = (int) Math.floor(x) - reach;
+        int top = (int) Math.floor(y) - reach;
+        int size = reach * 2 + 2;
+        interactionGrid.query(left, top, size, size, interactableCandidates);
+        return interactableCandidates;
+    }
+
+    /**
+     * Broadphase query: add to out the collidables that may block the box.
+     *
+     * Collidables implementing Positioned are only returned when their current
+     * bounds overlap the box, so they must not block outside of their bounds.
+     * The others are always returned.
+     *
+     * The grid is refreshed after each update, so during update() it is
+     * searched around the box by as far as a collidable moved during the
+     * last tick, at most one grid cell. Collidables moving further in one tick
+     * (teleports, or starting to move) must be refreshed with
+     * refreshCollidable() to be found at once.
+     *
+     * @return number of collidables added
+     */
+    public int queryCollidables(int x, int y, int width, int height, List<Collidable> out){
+        int padding = collisionPadding;
+        int start = out.size();
+        collisionGrid.query(x - padding, y - padding, width + padding * 2, height + padding * 2, out);
+        // keep those overlapping the box where they are now, not where the grid last saw them
+        int kept = start;
+        for(int i = start, n = out.size(); i < n; i++){
+            Collidable collidable = out.get(i);
+            Positioned bounds = (Positioned) collidable;
+            if(x < bounds.getX() + Math.max(bounds.getWidth(), 1) && x + width > bounds.getX()
+                    && y < bounds.getY() + Math.max(bounds.getHeight(), 1) && y + height > bounds.getY()){
+                out.set(kept++, collidable);
+            }
+        }
+        for(int i = out.size() - 1; i >= kept; i--){
+            out.remove(i);
+        }
+        int found = kept - start;
+        // indexed loop: addAll would copy the list to an array on every query
+        for(int i = 0, n = unboundedCollidables.size(); i < n; i++){
+            out.add(unboundedCollidables.get(i));
+        }
+        return found + unboundedCollidables.size();
+    }
+
+    /**
+     * Draw the drawables in the order they were added, then the render queue:
+     * the commands of the renderables and the sprites of the latest published
+     * snapshot, sorted by layer. The snapshot is read without locks, so it may
+     * be drawn while the next update runs. The drawable and renderable lists
+     * are copied under a lock when adds or removals changed them, so the game
+     * thread can change them mid-frame; the objects themselves are read live.
+     * Subclasses changing the drawables list directly must do it outside draws.
+     */
     public void draw(Graphics2D graphics2D){
-        for(Drawable drawable: drawables){
-            drawable.draw(graphics2D);
+        copyDrawnLists();
+        for(int i = 0; i < drawnDrawableCount; i++){
+            drawnDrawables[i].draw(graphics2D, interpolationAlpha);
+        }
+        for(int i = 0; i < drawnRenderableCount; i++){
+            drawnRenderables[i].submit(renderQueue, interpolationAlpha);
+        }
+        snapshots.acquire().submit(renderQueue, interpolationAlpha);
+        renderQueue.flush(graphics2D);
+    }
+
+    private void copyDrawnLists(){
+        synchronized(renderLock){
+            if(drawnVersion == renderListVersion) return;
+            int drawableCount = drawables.size();
+            if(drawnDrawables.length < drawableCount) drawnDrawables = new Drawable[drawableCount * 2];
+            for(int i = 0; i < drawableCount; i++){
+                drawnDrawables[i] = drawables.get(i);
+            }
+            // drop the references to removed objects
+            Arrays.fill(drawnDrawables, drawableCount, drawnDrawables.length, null);
+            drawnDrawableCount = drawableCount;
+
+            int renderableCount = renderables.size();
+            if(drawnRenderables.length < renderableCount) drawnRenderables = new Renderable[renderableCount * 2];
+            for(int i = 0; i < renderableCount; i++){
+                drawnRenderables[i] = renderables.get(i);
+            }
+            Arrays.fill(drawnRenderables, renderableCount, drawnRenderables.length, null);
+            drawnRenderableCount = renderableCount;
+            drawnVersion = renderListVersion;
         }
     }
 
+    /** @return the queue drawn after the drawables, for its statistics */
+    public RenderQueue getRenderQueue(){ return this.renderQueue; }
+
+    /**
+     * @param alpha fraction of a tick elapsed since the last update, used by drawables
+     *              to interpolate between the previous and the current state
+     */
+    public void setInterpolationAlpha(double alpha){
+        this.interpolationAlpha = alpha;
+    }
+
+    public double getInterpolationAlpha(){ return this.interpolationAlpha; }
+
+    /**
+     * Draws the scene and then the overlays on top.
+     * Called by the renderers; override draw() for custom rendering.
+     */
+    public final void render(Graphics2D graphics2D){
+        draw(graphics2D);
+        for(Drawable overlay: overlays){
+            overlay.draw(graphics2D, interpolationAlpha);
+        }
+    }
+
+    /** Add a drawable rendered on top of the scene, outside of the game objects. */
+    public void addOverlay(Drawable overlay){
+        overlays.add(overlay);
+    }
+
+    public void removeOverlay(Drawable overlay){
+        overlays.remove(overlay);
+    }
+
     @Override
     protected void paintComponent(Graphics g){
         super.paintComponent(g);
          Graphics2D graphics2D = (Graphics2D) g;
-        this.draw(graphics2D);
+        this.render(graphics2D);
         graphics2D.dispose();
 
     }
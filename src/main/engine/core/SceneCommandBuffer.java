@@ -0,0 +1,74 @@
+package main.engine.core;
+
+import java.util.Arrays;
+
+import main.engine.utils.ObjectPool;
+
+/**
+ * SceneCommandBuffer - Adds and removals requested while the scene updates.
+ *
+ * Changing the object lists while Scene.update iterates them would break the
+ * iteration, so the scene queues them here and applies them in order once
+ * the updatables have run. Queueing is synchronized, so ParallelUpdatables
+ * updated on pool threads can queue too; flush is only called by the scene
+ * once they are done.
+ */
+class SceneCommandBuffer {
+
+    private Object[] objects = new Object[32];
+    private boolean[] adds = new boolean[32];
+    // Pool to give a removed object back to once it is out of the scene, null if none
+    private ObjectPool<?>[] pools = new ObjectPool<?>[32];
+    private int count;
+
+    void queueAdd(Object object) {
+        queue(object, true, null);
+    }
+
+    void queueRemove(Object object) {
+        queue(object, false, null);
+    }
+
+    /** Remove the object, then release it to the pool. */
+    void queueDespawn(Object object, ObjectPool<?> pool) {
+        queue(object, false, pool);
+    }
+
+    private synchronized void queue(Object object, boolean add, ObjectPool<?> pool) {
+        if (count == objects.length) {
+            objects = Arrays.copyOf(objects, count * 2);
+            adds = Arrays.copyOf(adds, count * 2);
+            pools = Arrays.copyOf(pools, count * 2);
+        }
+        objects[count] = object;
+        adds[count] = add;
+        pools[count] = pool;
+        count++;
+    }
+
+    synchronized int size() {
+        return count;
+    }
+
+    /** Apply the queued changes in the order they were requested, then empty the buffer. */
+    void flush(Scene scene) {
+        // applied changes may not queue new ones, the scene is no longer updating
+        for (int i = 0; i < count; i++) {
+            if (adds[i]) {
+                scene.addGameObject(objects[i]);
+            } else {
+                // an object despawned twice in one update is only released once
+                if (scene.removeGameObject(objects[i]) && pools[i] != null) release(pools[i], objects[i]);
+            }
+            objects[i] = null;
+            pools[i] = null;
+        }
+        count = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void release(ObjectPool<T> pool, Object object) {
+        // queueDespawn is only reached from Scene.despawn(T, ObjectPool<T>)
+        pool.release((T) object);
+    }
+}
@@ -8,6 +8,9 @@ public class SceneManager {
 
     private final Scene currentScene;
 
+    // Passive rendering by default: let Swing repaint the scene on the EDT
+    private Renderer renderer = Scene::repaint;
+
     public SceneManager(Scene scene){
         if(scene == null){
             throw new IllegalArgumentException("Scene cannot be null");
@@ -20,9 +23,27 @@ public class SceneManager {
     } 
     
     public void render(){
-        currentScene.repaint();
+        render(1.0);
     } 
 
+    /**
+     * Renders the current scene.
+     *
+     * @param alpha interpolation factor in [0, 1) between the previous and the
+     *              current simulation tick (1.0 when not using a fixed timestep)
+     */
+    public void render(double alpha){
+        currentScene.setInterpolationAlpha(alpha);
+        renderer.render(currentScene);
+    }
+
+    public void setRenderer(Renderer renderer){
+        if(renderer == null){
+            throw new IllegalArgumentException("Renderer cannot be null");
+        }
+        this.renderer = renderer;
+    }
+
     public Scene getCurrentScene(){
         return currentScene;
     }
@@ -0,0 +1,104 @@
+package main.engine.ecs;
+
+import java.util.Arrays;
+
+/**
+ * ComponentStore - Sparse set holding one component type.
+ *
+ * Components live in dense, packed slots 0..size-1, so systems iterate
+ * primitive columns without gaps; a sparse array maps entity indexes to
+ * slots for O(1) lookups. Removing swaps the last slot into the hole.
+ *
+ * Subclasses declare the columns (e.g. float[] x, y) and keep them in step
+ * through grow() and move(). Columns may be reallocated when components are
+ * added: read them again after adding. grow() is first called from this
+ * constructor, so columns must not have field initializers.
+ */
+public abstract class ComponentStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] sparse = new int[INITIAL_CAPACITY];
+    private int[] dense = new int[INITIAL_CAPACITY];
+    private int size;
+
+    protected ComponentStore() {
+        Arrays.fill(sparse, -1);
+        grow(INITIAL_CAPACITY);
+    }
+
+    /** @return number of components, the slots to iterate */
+    public int size() {
+        return size;
+    }
+
+    /** @return entity owning the component in the given slot */
+    public int entityAt(int slot) {
+        return dense[slot];
+    }
+
+    /** @return slot of the entity's component, -1 if it has none */
+    public int slotOf(int entity) {
+        int index = EcsWorld.indexOf(entity);
+        if (index >= sparse.length) return -1;
+        int slot = sparse[index];
+        return slot >= 0 && dense[slot] == entity ? slot : -1;
+    }
+
+    public boolean has(int entity) {
+        return slotOf(entity) >= 0;
+    }
+
+    /**
+     * Reserve the slot of a new component, or return the existing one.
+     * Subclasses call it from their add methods, then fill the columns.
+     */
+    protected int addSlot(int entity) {
+        int existing = slotOf(entity);
+        if (existing >= 0) return existing;
+
+        int index = EcsWorld.indexOf(entity);
+        if (index >= sparse.length) {
+            int oldLength = sparse.length;
+            sparse = Arrays.copyOf(sparse, Math.max(index + 1, oldLength * 2));
+            Arrays.fill(sparse, oldLength, sparse.length, -1);
+        }
+        if (size == dense.length) {
+            dense = Arrays.copyOf(dense, size * 2);
+            grow(dense.length);
+        }
+
+        int slot = size++;
+        dense[slot] = entity;
+        sparse[index] = slot;
+        return slot;
+    }
+
+    /** Remove the entity's component. @return false if it had none */
+    public boolean remove(int entity) {
+        int slot = slotOf(entity);
+        if (slot < 0) return false;
+
+        int last = --size;
+        if (slot != last) {
+            int moved = dense[last];
+            dense[slot] = moved;
+            sparse[EcsWorld.indexOf(moved)] = slot;
+            move(last, slot);
+        }
+        clear(last);
+        sparse[EcsWorld.indexOf(entity)] = -1;
+        return true;
+    }
+
+    /** Resize every column to the given capacity. */
+    protected abstract void grow(int capacity);
+
+    /** Copy the component in slot from to slot to. */
+    protected abstract void move(int from, int to);
+
+    /** Release what the freed slot references (object columns). */
+    protected void clear(int slot) {
+        // primitive columns keep their stale values
+    }
+}
@@ -0,0 +1,13 @@
+package main.engine.ecs;
+
+/**
+ * EcsSystem - Logic run over the component stores every update.
+ *
+ * Systems iterate the dense slots of one store and look up the other
+ * components of each entity by slotOf().
+ */
+@FunctionalInterface
+public interface EcsSystem {
+
+    void update(EcsWorld world, double delta);
+}
@@ -0,0 +1,121 @@
+package main.engine.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import main.engine.api.Snapshotable;
+import main.engine.api.Updatable;
+import main.engine.core.RenderSnapshot;
+
+/**
+ * EcsWorld - Entities, their component stores and the systems run over them.
+ *
+ * Entities are plain ints: a slot index and an 8-bit generation, so the id of a
+ * destroyed entity never matches the entity reusing its slot. Components
+ * live in ComponentStores (sparse sets over primitive columns) and systems
+ * iterate the dense columns in order.
+ *
+ * The world is Updatable and Snapshotable: add it to a Scene with
+ * addGameObject and it runs next to the usual game objects. Its render
+ * systems write into the scene's render snapshot after each update, so the
+ * drawing thread never reads the stores the systems are changing.
+ */
+public class EcsWorld implements Updatable, Snapshotable {
+
+    private static final int INDEX_BITS = 24;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (32 - INDEX_BITS)) - 1;
+    public static final int MAX_ENTITIES = 1 << INDEX_BITS;
+
+    // Generation of each index, bumped when the entity is destroyed
+    private int[] generations = new int[64];
+    private int[] freeIndexes = new int[64];
+    private int freeCount;
+    private int nextIndex;
+    private int aliveCount;
+
+    private final List<ComponentStore> stores = new ArrayList<>();
+    private final List<EcsSystem> systems = new ArrayList<>();
+    private final List<RenderSystem> renderSystems = new ArrayList<>();
+
+    /** @return slot index of an entity id, used by the component stores */
+    public static int indexOf(int entity) {
+        return entity & INDEX_MASK;
+    }
+
+    /** @return a new entity id with no components */
+    public int create() {
+        int index;
+        if (freeCount > 0) {
+            index = freeIndexes[--freeCount];
+        } else {
+            if (nextIndex == MAX_ENTITIES) {
+                throw new IllegalStateException("Too many entities: " + MAX_ENTITIES);
+            }
+            index = nextIndex++;
+            if (index == generations.length) {
+                generations = Arrays.copyOf(generations, index * 2);
+            }
+        }
+        aliveCount++;
+        return (generations[index] << INDEX_BITS) | index;
+    }
+
+    /** Remove the entity and all its components. Ignored if already destroyed. */
+    public void destroy(int entity) {
+        if (!isAlive(entity)) return;
+        for (int i = 0, n = stores.size(); i < n; i++) {
+            stores.get(i).remove(entity);
+        }
+
+        int index = indexOf(entity);
+        generations[index] = (generations[index] + 1) & GENERATION_MASK;
+        if (freeCount == freeIndexes.length) {
+            freeIndexes = Arrays.copyOf(freeIndexes, freeCount * 2);
+        }
+        freeIndexes[freeCount++] = index;
+        aliveCount--;
+    }
+
+    public boolean isAlive(int entity) {
+        int index = indexOf(entity);
+        return index < nextIndex && generations[index] == entity >>> INDEX_BITS;
+    }
+
+    public int getEntityCount() {
+        return aliveCount;
+    }
+
+    /**
+     * Register a store so destroyed entities are removed from it.
+     * @return the store, for chaining into a field
+     */
+    public <S extends ComponentStore> S register(S store) {
+        stores.add(store);
+        return store;
+    }
+
+    /** Systems run in the order they are added. */
+    public void addSystem(EcsSystem system) {
+        systems.add(system);
+    }
+
+    public void addRenderSystem(RenderSystem system) {
+        renderSystems.add(system);
+    }
+
+    @Override
+    public void update(double delta) {
+        for (int i = 0, n = systems.size(); i < n; i++) {
+            systems.get(i).update(this, delta);
+        }
+    }
+
+    @Override
+    public void extract(RenderSnapshot snapshot) {
+        for (int i = 0, n = renderSystems.size(); i < n; i++) {
+            renderSystems.get(i).extract(this, snapshot);
+        }
+    }
+}
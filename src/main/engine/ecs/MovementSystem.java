@@ -0,0 +1,34 @@
+package main.engine.ecs;
+
+/**
+ * MovementSystem - Adds velocity to position for every entity having both.
+ */
+public class MovementSystem implements EcsSystem {
+
+    private final Vec2Store positions;
+    private final Vec2Store velocities;
+
+    public MovementSystem(Vec2Store positions, Vec2Store velocities) {
+        this.positions = positions;
+        this.velocities = velocities;
+    }
+
+    @Override
+    public void update(EcsWorld world, double delta) {
+        float[] velocityX = velocities.x;
+        float[] velocityY = velocities.y;
+        float[] positionX = positions.x;
+        float[] positionY = positions.y;
+        float step = (float) delta;
+
+        int positionCount = positions.size();
+        for (int slot = 0, n = velocities.size(); slot < n; slot++) {
+            int entity = velocities.entityAt(slot);
+            // components added together share their slot, skip the sparse lookup
+            int position = slot < positionCount && positions.entityAt(slot) == entity ? slot : positions.slotOf(entity);
+            if (position < 0) continue;
+            positionX[position] += velocityX[slot] * step;
+            positionY[position] += velocityY[slot] * step;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package main.engine.ecs;
+
+import java.util.Arrays;
+
+/**
+ * ObjectStore - Component holding a reference (sprite, script...).
+ *
+ * @param <T> component type
+ */
+public class ObjectStore<T> extends ComponentStore {
+
+    private Object[] values;
+
+    /** Add or replace the entity's component. @return its slot */
+    public int add(int entity, T value) {
+        int slot = addSlot(entity);
+        values[slot] = value;
+        return slot;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int slot) {
+        return (T) values[slot];
+    }
+
+    /** @return the entity's component, null if it has none */
+    public T getFor(int entity) {
+        int slot = slotOf(entity);
+        return slot < 0 ? null : get(slot);
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        values = values == null ? new Object[capacity] : Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    protected void clear(int slot) {
+        values[slot] = null;
+    }
+}
@@ -0,0 +1,16 @@
+package main.engine.ecs;
+
+import main.engine.core.RenderSnapshot;
+
+/**
+ * RenderSystem - Writes the draw data of the component stores after each update.
+ *
+ * Runs on the update thread when the scene publishes its render snapshot, so
+ * the stores are never read while systems change them; the renderer only
+ * draws the snapshot.
+ */
+@FunctionalInterface
+public interface RenderSystem {
+
+    void extract(EcsWorld world, RenderSnapshot snapshot);
+}
@@ -0,0 +1,40 @@
+package main.engine.ecs;
+
+import java.awt.image.BufferedImage;
+
+import main.engine.core.RenderSnapshot;
+
+/**
+ * SpriteRenderSystem - Snapshots the sprite of every entity having a position.
+ */
+public class SpriteRenderSystem implements RenderSystem {
+
+    private final Vec2Store positions;
+    private final ObjectStore<BufferedImage> sprites;
+    private final int z;
+
+    public SpriteRenderSystem(Vec2Store positions, ObjectStore<BufferedImage> sprites) {
+        this(positions, sprites, 0);
+    }
+
+    /** @param z render queue layer of the sprites, see RenderSnapshot.addSprite */
+    public SpriteRenderSystem(Vec2Store positions, ObjectStore<BufferedImage> sprites, int z) {
+        this.positions = positions;
+        this.sprites = sprites;
+        this.z = z;
+    }
+
+    @Override
+    public void extract(EcsWorld world, RenderSnapshot snapshot) {
+        float[] positionX = positions.x;
+        float[] positionY = positions.y;
+
+        for (int slot = 0, n = sprites.size(); slot < n; slot++) {
+            int position = positions.slotOf(sprites.entityAt(slot));
+            BufferedImage sprite = sprites.get(slot);
+            if (position < 0 || sprite == null) continue;
+            snapshot.addSprite(sprite, (int) positionX[position], (int) positionY[position],
+                    sprite.getWidth(), sprite.getHeight(), z);
+        }
+    }
+}
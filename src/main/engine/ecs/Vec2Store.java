@@ -0,0 +1,33 @@
+package main.engine.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Vec2Store - Component made of two floats (position, velocity...).
+ */
+public class Vec2Store extends ComponentStore {
+
+    /** Columns indexed by slot, valid until the next add */
+    public float[] x;
+    public float[] y;
+
+    /** Add or replace the entity's component. @return its slot */
+    public int add(int entity, float x, float y) {
+        int slot = addSlot(entity);
+        this.x[slot] = x;
+        this.y[slot] = y;
+        return slot;
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        x = x == null ? new float[capacity] : Arrays.copyOf(x, capacity);
+        y = y == null ? new float[capacity] : Arrays.copyOf(y, capacity);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+    }
+}
@@ -0,0 +1,94 @@
+package main.engine.graphics;
+
+import java.awt.Graphics2D;
+
+import main.engine.core.GameSettings;
+
+/**
+ * Camera - Scroll position and viewport into the game world.
+ *
+ * The camera position is the world coordinate shown at the top-left of the screen.
+ * Rendering code translates the graphics by the camera and can skip anything
+ * outside the viewport (TileManager does this for tiles).
+ *
+ * usage:
+ *   camera.centerOn(player.getX() + player.getWidth() / 2, player.getY() + player.getHeight() / 2);
+ *
+ *   AffineTransform saved = g2d.getTransform();
+ *   camera.apply(g2d);
+ *   tileManager.draw(g2d);
+ *   player.draw(g2d);
+ *   g2d.setTransform(saved);
+ */
+public class Camera {
+
+    private float x;
+    private float y;
+    private int viewportWidth;
+    private int viewportHeight;
+
+    // World size in pixels, 0 = unbounded
+    private int worldWidth;
+    private int worldHeight;
+
+    /** Camera with the viewport size of the screen. */
+    public Camera(GameSettings gameSettings){
+        this(gameSettings.getScreenWidth(), gameSettings.getScreenHeight());
+    }
+
+    public Camera(int viewportWidth, int viewportHeight){
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+    }
+
+    /** Move the camera, clamped to the world bounds if set. */
+    public void setPosition(float x, float y){
+        this.x = clamp(x, worldWidth, viewportWidth);
+        this.y = clamp(y, worldHeight, viewportHeight);
+    }
+
+    /** Move the camera so the given world point is in the middle of the viewport. */
+    public void centerOn(float worldX, float worldY){
+        setPosition(worldX - viewportWidth / 2f, worldY - viewportHeight / 2f);
+    }
+
+    /**
+     * Keep the camera inside the world (e.g. tileManager.getMapWidth(), tileManager.getMapHeight()).
+     * A world smaller than the viewport stays anchored at 0; a size of 0 leaves that axis unbounded.
+     */
+    public void setWorldBounds(int worldWidth, int worldHeight){
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        setPosition(x, y);
+    }
+
+    public void setViewportSize(int viewportWidth, int viewportHeight){
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+        setPosition(x, y);
+    }
+
+    private static float clamp(float value, int worldSize, int viewportSize){
+        // no bounds on this axis
+        if(worldSize == 0) return value;
+        int max = worldSize - viewportSize;
+        if(max <= 0) return 0;
+        return Math.max(0, Math.min(value, max));
+    }
+
+    /** Translate the graphics so world coordinates are drawn relative to the camera. */
+    public void apply(Graphics2D g2d){
+        g2d.translate(-Math.round(x), -Math.round(y));
+    }
+
+    /** @return true if the world rectangle is at least partly inside the viewport */
+    public boolean isVisible(int worldX, int worldY, int width, int height){
+        return worldX < x + viewportWidth && worldX + width > x
+                && worldY < y + viewportHeight && worldY + height > y;
+    }
+
+    public float getX(){ return x; }
+    public float getY(){ return y; }
+    public int getViewportWidth(){ return viewportWidth; }
+    public int getViewportHeight(){ return viewportHeight; }
+}
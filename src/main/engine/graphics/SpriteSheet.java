@@ -48,6 +48,21 @@ public class SpriteSheet {
         }
     }
     
+    /**
+     * Use an image already in memory (generated, or loaded by other means).
+     *
+     * @param sheet Image containing the frames
+     * @param frameWidth Width of each frame in pixels
+     * @param frameHeight Height of each frame in pixels
+     */
+    public SpriteSheet(BufferedImage sheet, int frameWidth, int frameHeight) {
+        this.sheet = sheet;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        this.columns = sheet.getWidth() / frameWidth;
+        this.rows = sheet.getHeight() / frameHeight;
+    }
+
     /**
      * Extract a single frame from the sprite sheet.
      * 
@@ -0,0 +1,136 @@
+package main.engine.particles;
+
+/**
+ * ParticleEmitter - Spawns particles into its ParticleSystem.
+ *
+ * Emitters come from the system's pool and are configured with the chained
+ * setters. An emitter emits its burst on the next update, then rate particles
+ * per tick until its duration is over or it is stopped.
+ *
+ * An emitter from ParticleSystem.createEmitter() belongs to the caller: once
+ * stopped it stays stopped (isStopped() is true) until the caller gives it
+ * back with ParticleSystem.releaseEmitter(). One from createOneShotEmitter()
+ * goes back to the pool by itself when it stops, so it must not be kept.
+ *
+ * usage:
+ *   particles.createOneShotEmitter().at(x, y).burst(200).speed(1, 4).life(20, 40).color(0xFFFFA020);
+ *   smoke = particles.createEmitter().at(x, y).rate(2).duration(ParticleEmitter.FOREVER);
+ *   ...
+ *   particles.releaseEmitter(smoke);
+ */
+public class ParticleEmitter {
+
+    public static final float FOREVER = Float.POSITIVE_INFINITY;
+
+    float x;
+    float y;
+    float rate;
+    int burst;
+    float duration;
+    float direction;
+    float spread;
+    float minSpeed;
+    float maxSpeed;
+    float minLife;
+    float maxLife;
+    int color;
+
+    float elapsed;
+    float accumulator;
+    boolean stopped;
+    // Given back to the pool when stopped, set by ParticleSystem.createOneShotEmitter
+    boolean oneShot;
+    // In the pool, waiting for the next acquire
+    boolean released;
+
+    ParticleEmitter() {
+        reset();
+    }
+
+    /** Back to the defaults: one update, all directions, white, 30 ticks of life. */
+    void reset() {
+        x = 0;
+        y = 0;
+        rate = 0;
+        burst = 0;
+        duration = 0;
+        direction = 0;
+        spread = (float) (Math.PI * 2);
+        minSpeed = 1;
+        maxSpeed = 1;
+        minLife = 30;
+        maxLife = 30;
+        color = 0xFFFFFFFF;
+        elapsed = 0;
+        accumulator = 0;
+        stopped = false;
+        oneShot = false;
+    }
+
+    /** Spawn position in world coordinates, can be moved every tick. */
+    public ParticleEmitter at(float emitterX, float emitterY) {
+        this.x = emitterX;
+        this.y = emitterY;
+        return this;
+    }
+
+    /** Particles emitted at once on the next update. */
+    public ParticleEmitter burst(int count) {
+        this.burst = Math.max(0, count);
+        return this;
+    }
+
+    /** Particles emitted per tick (fractions add up over the ticks). */
+    public ParticleEmitter rate(float particlesPerTick) {
+        this.rate = Math.max(0, particlesPerTick);
+        return this;
+    }
+
+    /** Ticks the emitter keeps emitting at its rate, 0 for a single burst, or FOREVER. */
+    public ParticleEmitter duration(float ticks) {
+        this.duration = ticks;
+        return this;
+    }
+
+    /**
+     * @param angle emission direction in radians (0 = right, PI / 2 = down)
+     * @param spreadAngle width of the emission cone in radians, 2 PI for all directions
+     */
+    public ParticleEmitter direction(float angle, float spreadAngle) {
+        this.direction = angle;
+        this.spread = spreadAngle;
+        return this;
+    }
+
+    /** Initial speed range in pixels per tick. */
+    public ParticleEmitter speed(float min, float max) {
+        this.minSpeed = min;
+        this.maxSpeed = Math.max(min, max);
+        return this;
+    }
+
+    /** Life range in ticks. */
+    public ParticleEmitter life(float min, float max) {
+        this.minLife = Math.max(0, min);
+        this.maxLife = Math.max(this.minLife, max);
+        return this;
+    }
+
+    /** @param argb particle color, alpha included */
+    public ParticleEmitter color(int argb) {
+        this.color = argb;
+        return this;
+    }
+
+    /** Stop emitting from the next update; a stopped emitter doesn't start again. */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public float getX() { return x; }
+    public float getY() { return y; }
+}
@@ -0,0 +1,358 @@
+package main.engine.particles;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import main.engine.api.Drawable;
+import main.engine.api.Renderable;
+import main.engine.api.Updatable;
+import main.engine.core.RenderQueue;
+import main.engine.graphics.Camera;
+import main.engine.utils.ObjectPool;
+
+/**
+ * ParticleSystem - Many small particles updated and drawn as one game object.
+ *
+ * Particles are kept in primitive arrays (position, velocity, life, color),
+ * packed: a dead particle is replaced by the last one. The capacity is fixed,
+ * particles emitted when it is full are dropped. Spawning comes from pooled
+ * ParticleEmitters, so nothing is allocated per particle or per effect as
+ * long as emitters are given back (one-shot, or with releaseEmitter).
+ *
+ * Drawing writes the particles as size x size pixel squares into an ARGB
+ * image covering the visible area (camera viewport, else graphics clip, else
+ * the particles' bounds), then draws that image once. The image only grows:
+ * a smaller area uses and draws its top-left part. Particles fade out
+ * with their life unless setFadeOut(false).
+ *
+ * Add it to a Scene with addGameObject: it is Updatable, and Renderable so its
+ * image is drawn on its layer of the render queue. Not thread-safe.
+ */
+public class ParticleSystem implements Updatable, Drawable, Renderable {
+
+    private static final int DEFAULT_EMITTER_POOL = 32;
+    // Largest canvas side drawn from the particles' bounds, far particles are cut
+    private static final int MAX_CANVAS_SIZE = 4096;
+
+    private final int capacity;
+    private final float[] x;
+    private final float[] y;
+    private final float[] velocityX;
+    private final float[] velocityY;
+    private final float[] life;
+    private final float[] inverseMaxLife;
+    private final int[] color;
+    private int count;
+
+    private float gravity;
+    private float damping = 1f;
+    private int particleSize = 1;
+    private boolean fadeOut = true;
+    private int layer;
+    private Camera camera;
+
+    private final List<ParticleEmitter> emitters = new ArrayList<>();
+    private final ObjectPool<ParticleEmitter> emitterPool =
+            new ObjectPool<>(ParticleEmitter::new, ParticleEmitter::reset, DEFAULT_EMITTER_POOL);
+    private long dropped;
+
+    // xorshift state, java.util.Random costs an atomic update per number
+    private int seed = 0x2545F491;
+
+    // Bounds of the live particles after the last update, used when there is no camera or clip
+    private float minX, minY, maxX, maxY;
+
+    private BufferedImage canvas;
+    private int[] pixels;
+    // World position and size of the area written by the last render, from the canvas top-left corner
+    private int canvasX;
+    private int canvasY;
+    private int drawnWidth;
+    private int drawnHeight;
+
+    /** @param capacity maximum live particles, e.g. 100_000 */
+    public ParticleSystem(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Particle capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        life = new float[capacity];
+        inverseMaxLife = new float[capacity];
+        color = new int[capacity];
+    }
+
+    /**
+     * @return a new emitter from the pool, emitting from the next update. It
+     *         stays the caller's once stopped; give it back with releaseEmitter
+     */
+    public ParticleEmitter createEmitter() {
+        return startEmitter(false);
+    }
+
+    /**
+     * @return a new emitter from the pool, emitting from the next update and
+     *         given back to the pool as soon as it stops. Configure it in the
+     *         same statement and don't keep it, it may be reused by then.
+     */
+    public ParticleEmitter createOneShotEmitter() {
+        return startEmitter(true);
+    }
+
+    private ParticleEmitter startEmitter(boolean oneShot) {
+        ParticleEmitter emitter = emitterPool.acquire();
+        emitter.released = false;
+        emitter.oneShot = oneShot;
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    /** Stop an emitter from createEmitter() and give it back to the pool; it must not be used anymore. */
+    public void releaseEmitter(ParticleEmitter emitter) {
+        if (emitter.released) return;
+        emitters.remove(emitter);
+        release(emitter);
+    }
+
+    private void release(ParticleEmitter emitter) {
+        emitterPool.release(emitter);
+        emitter.released = true;
+    }
+
+    /** Remove every particle and stop every emitter; one-shot emitters go back to the pool. */
+    public void clear() {
+        count = 0;
+        for (int i = 0; i < emitters.size(); i++) {
+            ParticleEmitter emitter = emitters.get(i);
+            if (emitter.oneShot) {
+                release(emitter);
+            } else {
+                emitter.stopped = true;
+            }
+        }
+        emitters.clear();
+    }
+
+    /** Move the particles, drop the dead ones, then run the emitters. */
+    @Override
+    public void update(double deltaTime) {
+        float delta = (float) deltaTime;
+        float dampingFactor = damping == 1f ? 1f : (float) Math.pow(damping, delta);
+        float gravityStep = gravity * delta;
+        float left = Float.MAX_VALUE, top = Float.MAX_VALUE, right = -Float.MAX_VALUE, bottom = -Float.MAX_VALUE;
+
+        int i = 0;
+        while (i < count) {
+            float remaining = life[i] - delta;
+            if (remaining <= 0) {
+                removeAt(i);
+                continue;
+            }
+            life[i] = remaining;
+            float vx = velocityX[i] * dampingFactor;
+            float vy = (velocityY[i] + gravityStep) * dampingFactor;
+            velocityX[i] = vx;
+            velocityY[i] = vy;
+            float px = x[i] += vx * delta;
+            float py = y[i] += vy * delta;
+            left = Math.min(left, px);
+            top = Math.min(top, py);
+            right = Math.max(right, px);
+            bottom = Math.max(bottom, py);
+            i++;
+        }
+        minX = left;
+        minY = top;
+        maxX = right;
+        maxY = bottom;
+
+        updateEmitters(delta);
+    }
+
+    private void updateEmitters(float delta) {
+        int e = 0;
+        while (e < emitters.size()) {
+            ParticleEmitter emitter = emitters.get(e);
+            if (!emitter.stopped) {
+                emitter.accumulator += emitter.rate * delta;
+                int spawn = (int) emitter.accumulator;
+                emitter.accumulator -= spawn;
+                spawn += emitter.burst;
+                emitter.burst = 0;
+                for (int n = 0; n < spawn; n++) {
+                    emit(emitter);
+                }
+                emitter.elapsed += delta;
+                if (emitter.elapsed >= emitter.duration) emitter.stopped = true;
+            }
+            if (emitter.stopped) {
+                // swap-remove, emitter order doesn't matter
+                int last = emitters.size() - 1;
+                emitters.set(e, emitters.get(last));
+                emitters.remove(last);
+                // the others stay stopped for their owner, see releaseEmitter
+                if (emitter.oneShot) release(emitter);
+            } else {
+                e++;
+            }
+        }
+    }
+
+    private void emit(ParticleEmitter emitter) {
+        if (count == capacity) {
+            dropped++;
+            return;
+        }
+        float angle = emitter.direction + (nextFloat() - 0.5f) * emitter.spread;
+        float speed = emitter.minSpeed + nextFloat() * (emitter.maxSpeed - emitter.minSpeed);
+        float maxLife = emitter.minLife + nextFloat() * (emitter.maxLife - emitter.minLife);
+        int i = count++;
+        x[i] = emitter.x;
+        y[i] = emitter.y;
+        velocityX[i] = (float) Math.cos(angle) * speed;
+        velocityY[i] = (float) Math.sin(angle) * speed;
+        life[i] = maxLife;
+        inverseMaxLife[i] = maxLife > 0 ? 1f / maxLife : 0f;
+        color[i] = emitter.color;
+        minX = Math.min(minX, emitter.x);
+        minY = Math.min(minY, emitter.y);
+        maxX = Math.max(maxX, emitter.x);
+        maxY = Math.max(maxY, emitter.y);
+    }
+
+    private void removeAt(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        velocityX[i] = velocityX[last];
+        velocityY[i] = velocityY[last];
+        life[i] = life[last];
+        inverseMaxLife[i] = inverseMaxLife[last];
+        color[i] = color[last];
+    }
+
+    private float nextFloat() {
+        int s = seed;
+        s ^= s << 13;
+        s ^= s >>> 17;
+        s ^= s << 5;
+        seed = s;
+        return (s >>> 8) * 0x1p-24f;
+    }
+
+    @Override
+    public void draw(Graphics2D graphics2D) {
+        // getClipBounds allocates a rectangle, the camera viewport is enough
+        BufferedImage image = render(camera == null ? graphics2D.getClipBounds() : null);
+        if (image != null) {
+            graphics2D.drawImage(image, canvasX, canvasY, canvasX + drawnWidth, canvasY + drawnHeight,
+                    0, 0, drawnWidth, drawnHeight, null);
+        }
+    }
+
+    @Override
+    public void submit(RenderQueue queue, double alpha) {
+        // no clip here, the queue is flushed later on the scene graphics
+        BufferedImage image = render(null);
+        if (image != null) {
+            queue.submitSprite(layer, image, canvasX, canvasY, drawnWidth, drawnHeight, 0, 0, drawnWidth, drawnHeight);
+        }
+    }
+
+    /** Write the particles into the canvas, null if nothing is visible. */
+    private BufferedImage render(Rectangle clip) {
+        if (count == 0) return null;
+        int left, top, areaWidth, areaHeight;
+        if (camera != null) {
+            left = (int) Math.floor(camera.getX());
+            top = (int) Math.floor(camera.getY());
+            areaWidth = camera.getViewportWidth();
+            areaHeight = camera.getViewportHeight();
+        } else if (clip != null) {
+            left = clip.x;
+            top = clip.y;
+            areaWidth = clip.width;
+            areaHeight = clip.height;
+        } else {
+            left = (int) Math.floor(minX);
+            top = (int) Math.floor(minY);
+            areaWidth = Math.min((int) Math.ceil(maxX) - left + particleSize, MAX_CANVAS_SIZE);
+            areaHeight = Math.min((int) Math.ceil(maxY) - top + particleSize, MAX_CANVAS_SIZE);
+        }
+        if (areaWidth <= 0 || areaHeight <= 0) return null;
+
+        if (canvas == null || canvas.getWidth() < areaWidth || canvas.getHeight() < areaHeight) {
+            int canvasWidth = canvas == null ? areaWidth : Math.max(canvas.getWidth(), areaWidth);
+            int canvasHeight = canvas == null ? areaHeight : Math.max(canvas.getHeight(), areaHeight);
+            canvas = new BufferedImage(canvasWidth, canvasHeight, BufferedImage.TYPE_INT_ARGB);
+            pixels = ((DataBufferInt) canvas.getRaster().getDataBuffer()).getData();
+        }
+        int stride = canvas.getWidth();
+        // only the area is drawn, the rest of the canvas may keep old pixels
+        for (int row = 0; row < areaHeight; row++) {
+            Arrays.fill(pixels, row * stride, row * stride + areaWidth, 0);
+        }
+        canvasX = left;
+        canvasY = top;
+        drawnWidth = areaWidth;
+        drawnHeight = areaHeight;
+
+        int[] target = pixels;
+        int size = particleSize;
+        for (int i = 0; i < count; i++) {
+            int px = (int) Math.floor(x[i]) - left;
+            int py = (int) Math.floor(y[i]) - top;
+            if (px >= areaWidth || py >= areaHeight || px + size <= 0 || py + size <= 0) continue;
+            int argb = color[i];
+            if (fadeOut) {
+                int fadedAlpha = (int) ((argb >>> 24) * Math.min(1f, life[i] * inverseMaxLife[i]));
+                argb = fadedAlpha << 24 | (argb & 0xFFFFFF);
+            }
+            if (size == 1) {
+                target[py * stride + px] = argb;
+            } else {
+                int startX = Math.max(px, 0), endX = Math.min(px + size, areaWidth);
+                int startY = Math.max(py, 0), endY = Math.min(py + size, areaHeight);
+                for (int row = startY; row < endY; row++) {
+                    Arrays.fill(target, row * stride + startX, row * stride + endX, argb);
+                }
+            }
+        }
+        return canvas;
+    }
+
+    /** @param gravity added to the vertical velocity every tick, in pixels per tick */
+    public void setGravity(float gravity) { this.gravity = gravity; }
+
+    /** @param damping velocity multiplier per tick, 1 for none (e.g. 0.98 for smoke) */
+    public void setDamping(float damping) { this.damping = damping; }
+
+    /** @param size particle width and height in pixels */
+    public void setParticleSize(int size) { this.particleSize = Math.max(1, size); }
+
+    public void setFadeOut(boolean fadeOut) { this.fadeOut = fadeOut; }
+
+    /** @param layer render queue layer of the particles, see RenderQueue */
+    public void setLayer(int layer) { this.layer = layer; }
+
+    /** Draw only the camera viewport; particles are still in world coordinates. */
+    public void setCamera(Camera camera) { this.camera = camera; }
+
+    public int getParticleCount() { return count; }
+    public int getCapacity() { return capacity; }
+    public int getEmitterCount() { return emitters.size(); }
+
+    /** @return particles not emitted because the system was full */
+    public long getDropped() { return dropped; }
+
+    /** @return the emitter pool, for its statistics */
+    public ObjectPool<ParticleEmitter> getEmitterPool() { return emitterPool; }
+}
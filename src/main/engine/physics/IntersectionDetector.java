@@ -11,4 +11,11 @@ public class IntersectionDetector {
                         Math.pow(objectCenterY - playerCenterY, 2)
         );
     }
+
+    /** Squared distance between two points: compare it to range * range, no square root. */
+    public static double distanceSquared(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return dx * dx + dy * dy;
+    }
 }
@@ -0,0 +1,282 @@
+package main.engine.physics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * PhysicsWorld - Steps many platformer bodies at once.
+ *
+ * Positions, velocities, sizes and flags are kept in primitive arrays (one
+ * entry per body, packed) and every body is stepped in one pass with the
+ * same rules as PlateformerPhysics with a SweptTileResolver: horizontal
+ * input, gravity capped at the max fall speed, jumps from the ground, exact
+ * contact with the solid cells of the grid. Bodies don't collide with each
+ * other, so large worlds can be split across cores.
+ *
+ * Bodies are referred to by the handle returned by addBody, which stays
+ * valid until the body is removed. Not thread-safe apart from step().
+ */
+public class PhysicsWorld {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+
+    private static final byte ON_GROUND = 1;
+
+    private final SolidGrid grid;
+    private final float gravity;
+    private final float jumpForce;
+    private final float maxFallSpeed;
+    private final float speed;
+
+    private int insetLeft;
+    private int insetTop;
+    private int insetRight;
+    private int insetBottom;
+
+    // Body data, indexes 0..count-1
+    private float[] x;
+    private float[] y;
+    private float[] velocityX;
+    private float[] velocityY;
+    private float[] moveInput;
+    private int[] width;
+    private int[] height;
+    private byte[] flags;
+    private int count;
+
+    // Handles stay stable while removal swaps the last body into the hole
+    private int[] handleToIndex;
+    private int[] indexToHandle;
+    private int[] freeHandles;
+    private int freeHandleCount;
+    private int handleCount;
+
+    // Resolvers keep the last contact, so each stepping thread has its own
+    private ThreadLocal<SweptTileResolver> resolvers;
+
+    private ForkJoinPool pool;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    /**
+     * @param grid solid cells the bodies collide with (e.g. the TileManager)
+     * @param gravity added to the vertical velocity every step (e.g. 0.5)
+     * @param jumpForce negative value for upward movement (e.g. -14)
+     * @param maxFallSpeed terminal velocity cap
+     * @param speed horizontal movement speed in pixels per step
+     */
+    public PhysicsWorld(SolidGrid grid, float gravity, float jumpForce, float maxFallSpeed, float speed) {
+        this.grid = grid;
+        this.gravity = gravity;
+        this.jumpForce = jumpForce;
+        this.maxFallSpeed = maxFallSpeed;
+        this.speed = speed;
+        this.resolvers = createResolvers();
+
+        x = new float[DEFAULT_CAPACITY];
+        y = new float[DEFAULT_CAPACITY];
+        velocityX = new float[DEFAULT_CAPACITY];
+        velocityY = new float[DEFAULT_CAPACITY];
+        moveInput = new float[DEFAULT_CAPACITY];
+        width = new int[DEFAULT_CAPACITY];
+        height = new int[DEFAULT_CAPACITY];
+        flags = new byte[DEFAULT_CAPACITY];
+        indexToHandle = new int[DEFAULT_CAPACITY];
+        handleToIndex = new int[DEFAULT_CAPACITY];
+        freeHandles = new int[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Hitbox margins inside each body box, like CollisionChecker
+     * (MARGIN_X, MARGIN_TOP, MARGIN_X, MARGIN_BOTTOM). Set before the first step.
+     */
+    public void setHitboxInsets(int left, int top, int right, int bottom) {
+        this.insetLeft = left;
+        this.insetTop = top;
+        this.insetRight = right;
+        this.insetBottom = bottom;
+        // a new holder so no thread keeps a resolver with the old insets
+        this.resolvers = createResolvers();
+    }
+
+    private ThreadLocal<SweptTileResolver> createResolvers() {
+        int left = insetLeft, top = insetTop, right = insetRight, bottom = insetBottom;
+        return ThreadLocal.withInitial(() -> new SweptTileResolver(grid, left, top, right, bottom));
+    }
+
+    /**
+     * Step the bodies on a fork-join pool when there are at least threshold of them.
+     * The grid must allow concurrent isSolid calls (TileManager does once its
+     * solidity is built, e.g. after rebuildSolidity()).
+     *
+     * @param pool e.g. ForkJoinPool.commonPool(), null to step on the calling thread
+     * @param threshold minimum bodies per task
+     */
+    public void setParallel(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.parallelThreshold = Math.max(1, threshold);
+    }
+
+    /** @return handle of the new body, at rest */
+    public int addBody(float bodyX, float bodyY, int bodyWidth, int bodyHeight) {
+        if (count == x.length) grow();
+
+        int handle = freeHandleCount > 0 ? freeHandles[--freeHandleCount] : handleCount++;
+        if (handle >= handleToIndex.length) {
+            handleToIndex = Arrays.copyOf(handleToIndex, handleToIndex.length * 2);
+        }
+
+        int index = count++;
+        x[index] = bodyX;
+        y[index] = bodyY;
+        velocityX[index] = 0;
+        velocityY[index] = 0;
+        moveInput[index] = 0;
+        width[index] = bodyWidth;
+        height[index] = bodyHeight;
+        flags[index] = 0;
+        indexToHandle[index] = handle;
+        handleToIndex[handle] = index;
+        return handle;
+    }
+
+    /** Remove a body, its handle may be reused by a later addBody. */
+    public void removeBody(int handle) {
+        int index = indexOf(handle);
+        int last = --count;
+        if (index != last) {
+            // move the last body into the hole to keep the arrays packed
+            x[index] = x[last];
+            y[index] = y[last];
+            velocityX[index] = velocityX[last];
+            velocityY[index] = velocityY[last];
+            moveInput[index] = moveInput[last];
+            width[index] = width[last];
+            height[index] = height[last];
+            flags[index] = flags[last];
+            int movedHandle = indexToHandle[last];
+            indexToHandle[index] = movedHandle;
+            handleToIndex[movedHandle] = index;
+        }
+        handleToIndex[handle] = -1;
+        if (freeHandleCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeHandles.length * 2);
+        }
+        freeHandles[freeHandleCount++] = handle;
+    }
+
+    /** @param input movement direction (-1 left, 1 right, 0 stopped) */
+    public void setMoveInput(int handle, float input) {
+        moveInput[indexOf(handle)] = input;
+    }
+
+    /** Initiates a jump if on ground. Does nothing if already airborne. */
+    public void jump(int handle) {
+        int index = indexOf(handle);
+        if ((flags[index] & ON_GROUND) != 0) {
+            velocityY[index] = jumpForce;
+            flags[index] &= ~ON_GROUND;
+        }
+    }
+
+    public void setPosition(int handle, float bodyX, float bodyY) {
+        int index = indexOf(handle);
+        x[index] = bodyX;
+        y[index] = bodyY;
+    }
+
+    public float getX(int handle) { return x[indexOf(handle)]; }
+    public float getY(int handle) { return y[indexOf(handle)]; }
+    public float getVelocityX(int handle) { return velocityX[indexOf(handle)]; }
+    public float getVelocityY(int handle) { return velocityY[indexOf(handle)]; }
+    public boolean isOnGround(int handle) { return (flags[indexOf(handle)] & ON_GROUND) != 0; }
+    public int getBodyCount() { return count; }
+
+    /** Advance every body by one step. */
+    public void step() {
+        if (pool != null && count >= parallelThreshold * 2) {
+            pool.invoke(new StepTask(0, count));
+        } else {
+            stepRange(0, count);
+        }
+    }
+
+    private void stepRange(int from, int to) {
+        SweptTileResolver resolver = resolvers.get();
+        for (int i = from; i < to; i++) {
+            stepBody(i, resolver);
+        }
+    }
+
+    private void stepBody(int i, SweptTileResolver resolver) {
+        int w = width[i];
+        int h = height[i];
+
+        // 1. horizontal velocity from input, then move against the walls
+        float input = moveInput[i];
+        float vx = input > 0 ? speed : input < 0 ? -speed : 0;
+        float dx = resolver.sweepX(x[i], y[i], w, h, vx);
+        x[i] += dx;
+        velocityX[i] = resolver.hasContact() ? 0 : vx;
+
+        // 2. gravity, capped fall speed
+        float vy = Math.min(velocityY[i] + gravity, maxFallSpeed);
+
+        // 3. vertical movement: land on ground, stop against ceilings
+        if (vy != 0) {
+            float dy = resolver.sweepY(x[i], y[i], w, h, vy);
+            y[i] += dy;
+            if (resolver.hasContact()) {
+                if (vy > 0) flags[i] |= ON_GROUND;
+                vy = 0;
+            } else if (vy > 0) {
+                flags[i] &= ~ON_GROUND;
+            }
+        }
+        velocityY[i] = vy;
+    }
+
+    private int indexOf(int handle) {
+        int index = handle >= 0 && handle < handleCount ? handleToIndex[handle] : -1;
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown body handle " + handle);
+        }
+        return index;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        moveInput = Arrays.copyOf(moveInput, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        indexToHandle = Arrays.copyOf(indexToHandle, capacity);
+    }
+
+    /** Splits the body range in halves down to the parallel threshold. */
+    @SuppressWarnings("serial")
+    private final class StepTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        StepTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= parallelThreshold) {
+                stepRange(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new StepTask(from, middle), new StepTask(middle, to));
+        }
+    }
+}
@@ -16,6 +16,12 @@ public class PlateformerPhysics {
 
     private static final float GROUND_SNAP_STEP = 1.0f;
 
+    // Position handed to the validator, reused so a step doesn't allocate
+    private final Vector2D probe = Vector2D.zero();
+
+    // Optional, exact tile collision (null = validator only, moves are all-or-nothing)
+    private SweptTileResolver tileResolver;
+
 
     /** 
      * @param gravity typically (0, 0.5) for downward pull
@@ -33,6 +39,18 @@ public class PlateformerPhysics {
     }
 
     
+    /**
+     * Resolve moves against the tiles with swept boxes: bodies stop exactly
+     * against walls, floors and ceilings in one pass, and fast falls can't tunnel
+     * through thin tiles. The validator still checks every resolved position,
+     * and collidables keep the pixel-by-pixel ground snap.
+     *
+     * @param tileResolver e.g. CollisionChecker.createTileResolver(), null to disable
+     */
+    public void setTileResolver(SweptTileResolver tileResolver){
+        this.tileResolver = tileResolver;
+    }
+
     /** 
      * Calculates next position after applying physics and collision resolution.
      * Handles horizontal movement, gravity, and vertical movement in sequence.
@@ -42,125 +60,134 @@ public class PlateformerPhysics {
      * @return new position after physics calculations
      */
     public Vector2D calculateNextPos(Vector2D current, Vector2D moveInput, int width, int height, MovementValidator validator){
-        
+        Vector2D nextPosition = current.copy();
+        step(nextPosition, moveInput, width, height, validator);
+        return nextPosition;
+    }
+
+    /**
+     * Same as calculateNextPos but moves the given position in place,
+     * without allocating: use it for many bodies every tick.
+     *
+     * @param position current position, updated to the new one
+     * @param moveInput movement direction (-1 left, 1 right, 0 stopped)
+     * @param validator callback to check if a position is valid
+     */
+    public void step(Vector2D position, Vector2D moveInput, int width, int height, MovementValidator validator){
+
         // 1. Update horizontal velocity based on input
         updateHorizontalVelocity(moveInput);
 
         // 2. Apply horizontal movement with collision
-        Vector2D nextPosition = applyHorizontalMovement(current, width, height, validator);
-       
+        applyHorizontalMovement(position, width, height, validator);
+
         // 3. Apply gravity to vertical velocity
         applyGravity();
 
         // 4. Apply vertical movement with collision
-        nextPosition = applyVerticalMovement(nextPosition, width, height, validator);
-
-        // 5. Return final position
-        return nextPosition;
+        applyVerticalMovement(position, width, height, validator);
     }
 
 
     private void updateHorizontalVelocity(Vector2D moveDirection){
-        // 1. Create working copy to preserve input
-        Vector2D copyMoveDirection = moveDirection.copy();
-    
-        // 2. Check if player is trying to move
-
-        if (copyMoveDirection.length() > 0) 
-            // 3. If moving:
-        {
-            //    - Normalize direction (make it unit vector)
-            copyMoveDirection.normalize();
-            //    - Apply speed multiplier
-            copyMoveDirection.multiply(speed);
-            //    - Update velocity.x with result
-            velocity.x = copyMoveDirection.x;
-        
-        } else{
-            // 4. If not moving:
-            //    - Set velocity.x to 0 (stop)
+        // Check if player is trying to move
+        float length = moveDirection.length();
+
+        if (length > 0) {
+            // If moving: normalized direction times speed
+            velocity.x = moveDirection.x / length * speed;
+        } else {
+            // If not moving: stop
             velocity.x = 0;
         }
     }
 
 
-    private Vector2D applyHorizontalMovement(Vector2D position, int w, int h, MovementValidator v){
-        
-        Vector2D horizontalMovement = new Vector2D(velocity.x, 0);
-        Vector2D nextPosition = tryMove(position, horizontalMovement, w, h, v);
-        
-        if(nextPosition.equals(position)){
-            velocity.x = 0; // Hit wall
+    private void applyHorizontalMovement(Vector2D position, int w, int h, MovementValidator v){
+        float dx = velocity.x;
+        boolean hitTile = false;
+        if(tileResolver != null){
+            // stop against the wall instead of short of it
+            dx = tileResolver.sweepX(position.x, position.y, w, h, dx);
+            hitTile = tileResolver.hasContact();
         }
 
-        return nextPosition; // Return actual new position
+        if(!tryMove(position, dx, 0, w, h, v) || hitTile){
+            velocity.x = 0; // Hit wall
+        }
     }
 
-    private Vector2D applyVerticalMovement(Vector2D position, int w , int h, MovementValidator v){
-        Vector2D movement = new Vector2D(0,velocity.y);
-
+    private void applyVerticalMovement(Vector2D position, int w , int h, MovementValidator v){
         if(velocity.y > 0){
-            return handleFalling(position, movement, w, h, v);
+            handleFalling(position, w, h, v);
         }else if(velocity.y < 0){
-            return handleRising(position, movement, w, h, v);
+            handleRising(position, w, h, v);
         }
-
-        return position;
     }
 
-    private Vector2D snapToGround(Vector2D position, int w, int h, MovementValidator v){
-        // create a copy 
-        Vector2D newPosition = position.copy();
-
+    private void snapToGround(Vector2D position, int w, int h, MovementValidator v){
         // while we can move down one more pixel
             // move down by GROUND_SNAP_STEP
-        while(v.canMoveTo(new Vector2D(newPosition.x, newPosition.y + GROUND_SNAP_STEP), w, h)){
-            newPosition.y += GROUND_SNAP_STEP;
+        while(tryMove(position, 0, GROUND_SNAP_STEP, w, h, v)){
+            // moved
         }
-        
-        // return final snapped position 
-        return newPosition;
     }
 
 
-    private Vector2D tryMove(Vector2D from, Vector2D movement, int w, int h, MovementValidator v){
-        // Calculate Where we want to move to 
-        Vector2D nextPosition = from.copy();
-        nextPosition.add(movement);
-
-        // check if that position is valid 
-        // Return nextPosition if valid,
-        // otherwise return original
-        return v.canMoveTo(nextPosition, w, h) ? nextPosition : from;
+    /**
+     * Move the position if the validator accepts the destination.
+     * @return false if blocked (position unchanged)
+     */
+    private boolean tryMove(Vector2D position, float dx, float dy, int w, int h, MovementValidator v){
+        // Calculate where we want to move to, in the reused probe
+        probe.set(position.x + dx, position.y + dy);
 
+        // check if that position is valid
+        if(!v.canMoveTo(probe, w, h)){
+            return false;
+        }
+        position.set(probe);
+        return true;
     }
     
 
-    private Vector2D handleRising(Vector2D position, Vector2D movement, int w, int h, MovementValidator v){
-        // Try to move up
-        Vector2D newPosition = tryMove(position, movement, w, h, v) ;
-
-        // If Blocked (position didnt change)
-        if(newPosition.equals(position)){
-            velocity.y = 0; // Hit Ceiling, stop
+    private void handleRising(Vector2D position, int w, int h, MovementValidator v){
+        float dy = velocity.y;
+        if(tileResolver != null){
+            dy = tileResolver.sweepY(position.x, position.y, w, h, dy);
+            if(tileResolver.hasContact()){
+                tryMove(position, 0, dy, w, h, v);
+                velocity.y = 0; // Hit Ceiling, stop
+                return;
+            }
         }
 
-        // Return new position
-        return newPosition; 
+        // Try to move up, if blocked hit ceiling and stop
+        if(!tryMove(position, 0, dy, w, h, v)){
+            velocity.y = 0;
+        }
     }
 
-    private Vector2D handleFalling(Vector2D position, Vector2D movement, int w, int h, MovementValidator v){
-        Vector2D newPosition = tryMove(position, movement, w, h, v);
+    private void handleFalling(Vector2D position, int w, int h, MovementValidator v){
+        float dy = velocity.y;
+        if(tileResolver != null){
+            // land exactly on the first solid tile below, one validator call
+            dy = tileResolver.sweepY(position.x, position.y, w, h, dy);
+            if(tileResolver.hasContact() && tryMove(position, 0, dy, w, h, v)){
+                velocity.y = 0;
+                onGround = true;
+                return;
+            }
+            // a collidable is in the way: snap onto it below
+        }
 
-        if(newPosition.equals(position)){
-            newPosition = snapToGround(newPosition, w, h, v);
+        if(tryMove(position, 0, dy, w, h, v)){
+            onGround = false;
+        }else{
+            snapToGround(position, w, h, v);
             velocity.y = 0;
             onGround = true;
-        }else{
-            onGround = false;
         }
-
-        return newPosition;
     }
 
 
@@ -193,4 +220,12 @@ public class PlateformerPhysics {
     public Vector2D getVelocity(){
         return new Vector2D(velocity);
     }
+
+    public float getVelocityX(){
+        return velocity.x;
+    }
+
+    public float getVelocityY(){
+        return velocity.y;
+    }
 }
@@ -0,0 +1,16 @@
+package main.engine.physics;
+
+/**
+ * SolidGrid - Grid of square cells that block movement (e.g. the tile map).
+ *
+ * Lets the physics sweep boxes against the world without depending on how
+ * it is stored.
+ */
+public interface SolidGrid {
+
+    /** @return cell width and height in pixels */
+    int getTileSize();
+
+    /** @return true if the cell blocks movement, cells outside the grid included */
+    boolean isSolid(int col, int row);
+}
@@ -0,0 +1,216 @@
+package main.engine.physics;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SpatialGrid - Uniform grid broadphase for boxes in world coordinates.
+ *
+ * Each object is registered with its bounds in every cell it overlaps, so a
+ * query only looks at the objects near the queried box instead of all of them.
+ * Cells are hashed into a fixed bucket array: the world needs no bounds and
+ * queries don't allocate. Results are exact, objects whose bounds don't
+ * overlap the query are filtered out.
+ *
+ * Queries don't write to the grid, so several threads can query at once;
+ * inserts, updates and removals must not run at the same time as anything else.
+ *
+ * @param <T> indexed objects, compared by identity
+ */
+public class SpatialGrid<T> {
+
+    private static final int DEFAULT_BUCKETS = 1024;
+
+    private static final class Entry<T> {
+        final T object;
+        int x, y, width, height;
+        int minCol, minRow, maxCol, maxRow;
+
+        Entry(T object) {
+            this.object = object;
+        }
+    }
+
+    private final int cellSize;
+    private final ArrayList<Entry<T>>[] buckets;
+    private final int bucketMask;
+    private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+
+    // Largest edge movement of an update since takeLargestMove()
+    private int largestMove;
+
+    public SpatialGrid(int cellSize) {
+        this(cellSize, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * @param cellSize cell width and height in pixels, a few times the usual object size
+     * @param bucketCount number of hash buckets, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public SpatialGrid(int cellSize, int bucketCount) {
+        if (cellSize < 1 || bucketCount < 1) {
+            throw new IllegalArgumentException("Invalid grid: cell size " + cellSize + ", buckets " + bucketCount);
+        }
+        this.cellSize = cellSize;
+        int size = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.buckets = (ArrayList<Entry<T>>[]) new ArrayList<?>[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>(4);
+        }
+        this.bucketMask = size - 1;
+    }
+
+    /** Add an object, or move it if it is already indexed. */
+    public void insert(T object, int x, int y, int width, int height) {
+        Entry<T> entry = entries.get(object);
+        if (entry == null) {
+            entry = new Entry<>(object);
+            entries.put(object, entry);
+            setBounds(entry, x, y, width, height);
+            addToCells(entry);
+        } else {
+            update(entry, x, y, width, height);
+        }
+    }
+
+    /**
+     * Update the bounds of an indexed object. Cheap when it stays in the
+     * same cells, which is the common case for moving platforms.
+     *
+     * @return false if the object is not indexed
+     */
+    public boolean update(T object, int x, int y, int width, int height) {
+        Entry<T> entry = entries.get(object);
+        if (entry == null) return false;
+        update(entry, x, y, width, height);
+        return true;
+    }
+
+    private void update(Entry<T> entry, int x, int y, int width, int height) {
+        int move = Math.max(Math.max(Math.abs(x - entry.x), Math.abs(y - entry.y)),
+                Math.max(Math.abs(x + width - entry.x - entry.width), Math.abs(y + height - entry.y - entry.height)));
+        if (move > largestMove) largestMove = move;
+        int minCol = Math.floorDiv(x, cellSize);
+        int minRow = Math.floorDiv(y, cellSize);
+        int maxCol = Math.floorDiv(x + Math.max(width, 1) - 1, cellSize);
+        int maxRow = Math.floorDiv(y + Math.max(height, 1) - 1, cellSize);
+        if (minCol == entry.minCol && minRow == entry.minRow && maxCol == entry.maxCol && maxRow == entry.maxRow) {
+            entry.x = x;
+            entry.y = y;
+            entry.width = width;
+            entry.height = height;
+            return;
+        }
+        removeFromCells(entry);
+        setBounds(entry, x, y, width, height);
+        addToCells(entry);
+    }
+
+    public boolean remove(T object) {
+        Entry<T> entry = entries.remove(object);
+        if (entry == null) return false;
+        removeFromCells(entry);
+        return true;
+    }
+
+    public boolean contains(T object) {
+        return entries.containsKey(object);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        for (ArrayList<Entry<T>> bucket : buckets) {
+            bucket.clear();
+        }
+        entries.clear();
+    }
+
+    /**
+     * Add to out every object whose bounds overlap the box, each once.
+     *
+     * @return number of objects added
+     */
+    public int query(int x, int y, int width, int height, List<? super T> out) {
+        int minCol = Math.floorDiv(x, cellSize);
+        int minRow = Math.floorDiv(y, cellSize);
+        int maxCol = Math.floorDiv(x + Math.max(width, 1) - 1, cellSize);
+        int maxRow = Math.floorDiv(y + Math.max(height, 1) - 1, cellSize);
+
+        int found = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                ArrayList<Entry<T>> bucket = buckets[bucket(col, row)];
+                for (int i = 0, n = bucket.size(); i < n; i++) {
+                    Entry<T> entry = bucket.get(i);
+                    // an entry is in every bucket of its cells: only look at it from
+                    // the first of its cells inside the query, it then comes out once
+                    if (col != Math.max(minCol, entry.minCol) || row != Math.max(minRow, entry.minRow)
+                            || col > entry.maxCol || row > entry.maxRow) {
+                        continue;
+                    }
+                    // empty bounds count as one pixel, like their cells
+                    if (x < entry.x + Math.max(entry.width, 1) && x + width > entry.x
+                            && y < entry.y + Math.max(entry.height, 1) && y + height > entry.y) {
+                        out.add(entry.object);
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the largest distance an edge of an object moved in one update
+     *         since the last call, then start over. Used to pad queries made
+     *         while objects move and the grid is not refreshed yet.
+     */
+    public int takeLargestMove() {
+        int move = largestMove;
+        largestMove = 0;
+        return move;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    private void setBounds(Entry<T> entry, int x, int y, int width, int height) {
+        entry.x = x;
+        entry.y = y;
+        entry.width = width;
+        entry.height = height;
+        entry.minCol = Math.floorDiv(x, cellSize);
+        entry.minRow = Math.floorDiv(y, cellSize);
+        entry.maxCol = Math.floorDiv(x + Math.max(width, 1) - 1, cellSize);
+        entry.maxRow = Math.floorDiv(y + Math.max(height, 1) - 1, cellSize);
+    }
+
+    private void addToCells(Entry<T> entry) {
+        for (int row = entry.minRow; row <= entry.maxRow; row++) {
+            for (int col = entry.minCol; col <= entry.maxCol; col++) {
+                ArrayList<Entry<T>> bucket = buckets[bucket(col, row)];
+                // cells hashed to the same bucket share one registration
+                if (!bucket.contains(entry)) bucket.add(entry);
+            }
+        }
+    }
+
+    private void removeFromCells(Entry<T> entry) {
+        for (int row = entry.minRow; row <= entry.maxRow; row++) {
+            for (int col = entry.minCol; col <= entry.maxCol; col++) {
+                buckets[bucket(col, row)].remove(entry);
+            }
+        }
+    }
+
+    private int bucket(int col, int row) {
+        return (col * 73856093 ^ row * 19349663) & bucketMask;
+    }
+}
@@ -95,6 +95,19 @@ public class Vector2D {
         this.y = other.y;
     }
 
+    /**
+     * Set this vector to the linear interpolation between two vectors.
+     * Used to render between two fixed simulation ticks.
+     *
+     * @param from state at alpha 0
+     * @param to state at alpha 1
+     * @param alpha interpolation factor
+     */
+    public void lerp(Vector2D from, Vector2D to, double alpha) {
+        this.x = (float) (from.x + (to.x - from.x) * alpha);
+        this.y = (float) (from.y + (to.y - from.y) * alpha);
+    }
+
     // to Save old position
     public Vector2D copy() {
         return new Vector2D(this.x, this.y);
@@ -0,0 +1,77 @@
+package main.engine.profiling;
+
+/**
+ * FrameProfiler - Per-phase frame timings recorded by the game loop.
+ *
+ * usage:
+ *   FrameStats frames = profiler.getStats(FrameProfiler.Phase.FRAME);
+ *   Log.info("p99 frame time: " + frames.getP99() / 1_000_000.0 + " ms");
+ */
+public class FrameProfiler {
+
+    public enum Phase {
+        /** Scene updates of the frame (all fixed ticks when using a fixed timestep) */
+        UPDATE,
+        /** Rendering, or scheduling the repaint in passive mode */
+        RENDER,
+        /** Time spent waiting for the next frame */
+        IDLE,
+        /** Whole frame: update + render + idle */
+        FRAME
+    }
+
+    public static final int DEFAULT_WINDOW = 300;
+
+    private final FrameStats[] stats;
+    private volatile long frameCount;
+
+    public FrameProfiler(){
+        this(DEFAULT_WINDOW);
+    }
+
+    /** @param windowSize number of frames kept for the rolling statistics */
+    public FrameProfiler(int windowSize){
+        Phase[] phases = Phase.values();
+        stats = new FrameStats[phases.length];
+        for(Phase phase: phases){
+            stats[phase.ordinal()] = new FrameStats(windowSize);
+        }
+    }
+
+    /**
+     * Record one frame. Timestamps are System.nanoTime() values.
+     *
+     * @param frameStart before the update phase
+     * @param updateEnd after the update phase
+     * @param renderEnd after the render phase
+     * @param frameEnd after waiting for the next frame
+     */
+    public void recordFrame(long frameStart, long updateEnd, long renderEnd, long frameEnd){
+        stats[Phase.UPDATE.ordinal()].record(updateEnd - frameStart);
+        stats[Phase.RENDER.ordinal()].record(renderEnd - updateEnd);
+        stats[Phase.IDLE.ordinal()].record(frameEnd - renderEnd);
+        stats[Phase.FRAME.ordinal()].record(frameEnd - frameStart);
+        frameCount++;
+    }
+
+    public FrameStats getStats(Phase phase){
+        return stats[phase.ordinal()];
+    }
+
+    /** @return frames per second over the window, from the mean frame time */
+    public double getFps(){
+        double mean = getStats(Phase.FRAME).getMean();
+        return mean == 0 ? 0 : 1_000_000_000.0 / mean;
+    }
+
+    /** @return total frames recorded since creation */
+    public long getFrameCount(){
+        return frameCount;
+    }
+
+    public void reset(){
+        for(FrameStats frameStats: stats){
+            frameStats.reset();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package main.engine.profiling;
+
+import java.util.Arrays;
+
+/**
+ * FrameStats - Rolling window of durations for one frame phase.
+ *
+ * Recording is O(1) and allocation-free (ring buffer of the last N samples).
+ * Statistics are computed on demand over the window, so the cost is paid by
+ * whoever queries (overlay, logging), not by the game loop.
+ * Methods are synchronized: the loop records on the game thread while the
+ * overlay may query from the EDT.
+ */
+public class FrameStats {
+
+    private final long[] samples;
+    private final long[] sorted;   // scratch buffer for percentiles
+    private int next = 0;
+    private int count = 0;
+    private long total = 0;        // sum of the samples in the window
+
+    /** @param windowSize number of most recent samples kept */
+    public FrameStats(int windowSize){
+        if(windowSize < 1){
+            throw new IllegalArgumentException("Window size must be at least 1");
+        }
+        this.samples = new long[windowSize];
+        this.sorted = new long[windowSize];
+    }
+
+    /** Record one duration in nanoseconds, replacing the oldest sample once the window is full. */
+    public synchronized void record(long nanos){
+        if(count == samples.length){
+            total -= samples[next];
+        }else{
+            count++;
+        }
+        samples[next] = nanos;
+        total += nanos;
+        next = (next + 1) % samples.length;
+    }
+
+    /** @return mean duration over the window, in nanoseconds */
+    public synchronized double getMean(){
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * @param percentile between 0 and 100 (e.g. 50, 95, 99)
+     * @return duration in nanoseconds below which that percentage of samples fall
+     */
+    public synchronized long getPercentile(double percentile){
+        if(count == 0) return 0;
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    public long getP50(){ return getPercentile(50); }
+    public long getP95(){ return getPercentile(95); }
+    public long getP99(){ return getPercentile(99); }
+
+    /** @return longest duration in the window, in nanoseconds */
+    public synchronized long getMax(){
+        long max = 0;
+        for(int i = 0; i < count; i++){
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    /** @return most recent sample, in nanoseconds */
+    public synchronized long getLast(){
+        return count == 0 ? 0 : samples[(next - 1 + samples.length) % samples.length];
+    }
+
+    /**
+     * Copy the samples oldest to newest into the given array.
+     *
+     * @return number of samples copied
+     */
+    public synchronized int copySamples(long[] out){
+        int copied = Math.min(count, out.length);
+        int start = (next - copied + samples.length) % samples.length;
+        for(int i = 0; i < copied; i++){
+            out[i] = samples[(start + i) % samples.length];
+        }
+        return copied;
+    }
+
+    public synchronized int getSampleCount(){
+        return count;
+    }
+
+    public int getWindowSize(){
+        return samples.length;
+    }
+
+    public synchronized void reset(){
+        next = 0;
+        count = 0;
+        total = 0;
+    }
+}
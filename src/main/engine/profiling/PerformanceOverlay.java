@@ -0,0 +1,89 @@
+package main.engine.profiling;
+
+import java.awt.*;
+
+import main.engine.api.Drawable;
+
+/**
+ * PerformanceOverlay - Frame time graph and phase statistics drawn over the scene.
+ *
+ * Each bar is one frame (newest on the right), the line marks the target frame time.
+ * Enable with GameSettings.builder().performanceOverlay(true) or add it with
+ * scene.addOverlay(new PerformanceOverlay(profiler, fps)).
+ */
+public class PerformanceOverlay implements Drawable {
+
+    private static final int GRAPH_WIDTH = 240;
+    private static final int GRAPH_HEIGHT = 60;
+    private static final int LINE_HEIGHT = 14;
+
+    private final FrameProfiler profiler;
+    private final double targetFrameNanos;
+    private final long[] history;
+
+    private int x = 10;
+    private int y = 10;
+
+    private final Color backgroundColor = new Color(0, 0, 0, 170);
+    private final Color barColor = new Color(90, 200, 120);
+    private final Color slowBarColor = new Color(230, 80, 70);
+    private final Color targetColor = new Color(255, 210, 90);
+    private final Font font = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+
+    public PerformanceOverlay(FrameProfiler profiler, int targetFps){
+        this.profiler = profiler;
+        this.targetFrameNanos = 1_000_000_000.0 / targetFps;
+        this.history = new long[GRAPH_WIDTH];
+    }
+
+    public void setPosition(int x, int y){
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public void draw(Graphics2D g2d) {
+        int textHeight = LINE_HEIGHT * 5;
+        int height = textHeight + GRAPH_HEIGHT + 12;
+
+        g2d.setColor(backgroundColor);
+        g2d.fillRect(x, y, GRAPH_WIDTH + 10, height);
+
+        // Text
+        g2d.setFont(font);
+        g2d.setColor(Color.WHITE);
+        int lineY = y + LINE_HEIGHT;
+        Runtime runtime = Runtime.getRuntime();
+        long usedMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        g2d.drawString(String.format("FPS %.1f   heap %d MB", profiler.getFps(), usedMb), x + 5, lineY);
+        g2d.drawString("phase   mean   p50   p95   p99   max", x + 5, lineY += LINE_HEIGHT);
+        lineY = drawPhase(g2d, "update", profiler.getStats(FrameProfiler.Phase.UPDATE), lineY);
+        lineY = drawPhase(g2d, "render", profiler.getStats(FrameProfiler.Phase.RENDER), lineY);
+        drawPhase(g2d, "frame ", profiler.getStats(FrameProfiler.Phase.FRAME), lineY);
+
+        // Graph - scaled so twice the target frame time fills the height
+        int graphTop = y + textHeight + 6;
+        int graphBottom = graphTop + GRAPH_HEIGHT;
+        double nanosPerPixel = targetFrameNanos * 2 / GRAPH_HEIGHT;
+
+        int count = profiler.getStats(FrameProfiler.Phase.FRAME).copySamples(history);
+        int graphX = x + 5 + GRAPH_WIDTH - count;
+        for(int i = 0; i < count; i++){
+            int barHeight = (int) Math.min(GRAPH_HEIGHT, history[i] / nanosPerPixel);
+            g2d.setColor(history[i] > targetFrameNanos * 1.5 ? slowBarColor : barColor);
+            g2d.drawLine(graphX + i, graphBottom, graphX + i, graphBottom - barHeight);
+        }
+
+        int targetY = graphBottom - (int) (targetFrameNanos / nanosPerPixel);
+        g2d.setColor(targetColor);
+        g2d.drawLine(x + 5, targetY, x + 5 + GRAPH_WIDTH, targetY);
+    }
+
+    private int drawPhase(Graphics2D g2d, String name, FrameStats stats, int lineY){
+        lineY += LINE_HEIGHT;
+        g2d.drawString(String.format("%s %5.1f %5.1f %5.1f %5.1f %5.1f", name,
+                stats.getMean() / 1_000_000.0, stats.getP50() / 1_000_000.0, stats.getP95() / 1_000_000.0,
+                stats.getP99() / 1_000_000.0, stats.getMax() / 1_000_000.0), x + 5, lineY);
+        return lineY;
+    }
+}
@@ -0,0 +1,117 @@
+package main.engine.utils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * ObjectPool - Reuses short-lived objects (projectiles, hit effects...)
+ * instead of leaving them to the garbage collector.
+ *
+ * acquire() hands out a free object or creates one; release() resets it and
+ * keeps it for the next acquire, up to maxSize free objects. Borrow and
+ * return counts are kept to size the pool. Scene.spawn/despawn add and
+ * remove pooled objects from a scene.
+ *
+ * Not thread-safe. Releasing an object twice puts it twice in the pool.
+ *
+ * @param <T> pooled type
+ */
+public class ObjectPool<T> {
+
+    private final Supplier<T> factory;
+    private final Consumer<T> reset;
+    private final int maxSize;
+
+    private Object[] free;
+    private int freeCount;
+
+    private long created;
+    private long acquired;
+    private long released;
+    private long discarded;
+    private long misses;
+
+    /**
+     * @param factory creates a new object when the pool is empty
+     * @param reset clears an object when it is released, may be null
+     * @param maxSize maximum free objects kept, the others are left to the GC
+     */
+    public ObjectPool(Supplier<T> factory, Consumer<T> reset, int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.factory = factory;
+        this.reset = reset;
+        this.maxSize = maxSize;
+        this.free = new Object[Math.min(maxSize, 16)];
+    }
+
+    /** Create objects up front so the first acquires don't allocate. */
+    public ObjectPool<T> prefill(int count) {
+        int target = Math.min(maxSize, freeCount + count);
+        while (freeCount < target) {
+            push(factory.get());
+            created++;
+        }
+        return this;
+    }
+
+    /** @return a free object, or a new one if the pool is empty */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        acquired++;
+        if (freeCount > 0) {
+            T object = (T) free[--freeCount];
+            free[freeCount] = null;
+            return object;
+        }
+        created++;
+        misses++;
+        return factory.get();
+    }
+
+    /** Reset the object and keep it for a later acquire. */
+    public void release(T object) {
+        released++;
+        if (reset != null) reset.accept(object);
+        if (freeCount < maxSize) {
+            push(object);
+        } else {
+            discarded++;
+        }
+    }
+
+    private void push(T object) {
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, Math.min(maxSize, Math.max(1, free.length * 2)));
+        }
+        free[freeCount++] = object;
+    }
+
+    /** @return objects ready to be acquired */
+    public int getAvailable() { return freeCount; }
+
+    /** @return objects acquired and not released yet */
+    public long getInUse() { return acquired - released; }
+
+    public long getCreated() { return created; }
+    public long getAcquired() { return acquired; }
+    public long getReleased() { return released; }
+
+    /** @return released objects dropped because the pool was full */
+    public long getDiscarded() { return discarded; }
+
+    public int getMaxSize() { return maxSize; }
+
+    /** @return share of acquires served without creating an object */
+    public double getHitRate() {
+        return acquired == 0 ? 1.0 : 1.0 - (double) misses / acquired;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ObjectPool[available=%d, inUse=%d, created=%d, discarded=%d, hitRate=%.2f]",
+                freeCount, getInUse(), created, discarded, getHitRate());
+    }
+}
@@ -0,0 +1,52 @@
+package main.engine.window;
+
+import java.awt.Canvas;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+import main.engine.core.Renderer;
+import main.engine.core.Scene;
+
+/**
+ * BufferStrategyRenderer - Active rendering from the game thread.
+ *
+ * Draws the scene into the back buffer of a page-flipped BufferStrategy and
+ * shows it immediately, so every frame the game loop produces reaches the screen
+ * (no repaint coalescing on the EDT).
+ */
+public class BufferStrategyRenderer implements Renderer {
+
+    private final Canvas canvas;
+    private final BufferStrategy strategy;
+
+    public BufferStrategyRenderer(Canvas canvas, BufferStrategy strategy){
+        this.canvas = canvas;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void render(Scene scene) {
+        // window closed or not shown yet
+        if(!canvas.isDisplayable()) return;
+
+        // Standard BufferStrategy loop: redraw if the buffer was restored or lost
+        do {
+            do {
+                Graphics2D graphics2D = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    graphics2D.setColor(scene.getBackground());
+                    graphics2D.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+                    scene.render(graphics2D);
+                } finally {
+                    graphics2D.dispose();
+                }
+            } while (strategy.contentsRestored());
+
+            strategy.show();
+        } while (strategy.contentsLost());
+
+        // flush the window system queue (avoids lag on Linux/X11)
+        Toolkit.getDefaultToolkit().sync();
+    }
+}
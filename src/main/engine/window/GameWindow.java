@@ -1,15 +1,30 @@
 package main.engine.window;
 
+import java.awt.Canvas;
+import java.awt.Dimension;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+
 import javax.swing.JFrame;
 
 import main.engine.core.GameSettings;
+import main.engine.core.RenderMode;
+import main.engine.core.Renderer;
 import main.engine.core.Scene;
+import main.engine.utils.Log;
 
 public class GameWindow {
     
     private JFrame frame;
+    private GameSettings gameSettings;
+
+    // Passive by default, replaced when active rendering is set up
+    private Renderer renderer = Scene::repaint;
 
     public GameWindow(GameSettings gameSettings){
+        this.gameSettings = gameSettings;
         frame = new JFrame();
         
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -19,14 +34,94 @@ public class GameWindow {
     }
 
     public void show(Scene scene){
+        if(gameSettings.getRenderMode() == RenderMode.ACTIVE){
+            showActive(scene);
+            return;
+        }
+
         frame.add(scene);
         frame.pack();
         frame.setLocationRelativeTo(null);
         frame.setVisible(true);
     }
 
+    /**
+     * Active rendering - the scene is drawn by the game thread into a
+     * BufferStrategy on a Canvas. The scene panel is not displayed, so it is
+     * sized manually and receives the key events of the canvas.
+     * Falls back to the passive JPanel path if no BufferStrategy can be created.
+     */
+    private void showActive(Scene scene){
+        Canvas canvas = new Canvas();
+        canvas.setIgnoreRepaint(true);
+        canvas.setPreferredSize(scene.isPreferredSizeSet()
+                ? scene.getPreferredSize()
+                : new Dimension(gameSettings.getScreenWidth(), gameSettings.getScreenHeight()));
+        canvas.setFocusable(true);
+        canvas.addKeyListener(new SceneKeyForwarder(scene));
+        canvas.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                scene.setSize(canvas.getSize());
+            }
+        });
+
+        frame.setIgnoreRepaint(true);
+        frame.add(canvas);
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+
+        try {
+            canvas.createBufferStrategy(2);
+            renderer = new BufferStrategyRenderer(canvas, canvas.getBufferStrategy());
+            scene.setSize(canvas.getSize());
+            canvas.requestFocus();
+        } catch (RuntimeException e) {
+            Log.error("Active rendering unavailable, falling back to passive rendering", e);
+            frame.remove(canvas);
+            frame.setIgnoreRepaint(false);
+            frame.add(scene);
+            frame.pack();
+            scene.requestFocusInWindow();
+        }
+    }
+
+    /** @return the renderer matching how the scene was shown */
+    public Renderer getRenderer(){
+        return renderer;
+    }
+
     public void hide() {
         frame.setVisible(false);
         frame.dispose();
     }
+
+    /**
+     * Forwards canvas key events to the key listeners registered on the scene,
+     * so games keep calling scene.addKeyListener() in both render modes.
+     */
+    private static class SceneKeyForwarder implements KeyListener {
+
+        private final Scene scene;
+
+        SceneKeyForwarder(Scene scene){
+            this.scene = scene;
+        }
+
+        @Override
+        public void keyTyped(KeyEvent e) {
+            for(KeyListener listener: scene.getKeyListeners()) listener.keyTyped(e);
+        }
+
+        @Override
+        public void keyPressed(KeyEvent e) {
+            for(KeyListener listener: scene.getKeyListeners()) listener.keyPressed(e);
+        }
+
+        @Override
+        public void keyReleased(KeyEvent e) {
+            for(KeyListener listener: scene.getKeyListeners()) listener.keyReleased(e);
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package main.engine.world;
+
+/**
+ * ArrayTileLayer - Tile layer held in [row][col] int arrays on the heap.
+ */
+public class ArrayTileLayer implements TileLayer {
+
+    private final int[][] cells;
+    private final int cols;
+
+    public ArrayTileLayer(int[][] cells) {
+        this.cells = cells;
+        this.cols = cells.length > 0 ? cells[0].length : 0;
+    }
+
+    @Override
+    public int getCols() { return cols; }
+
+    @Override
+    public int getRows() { return cells.length; }
+
+    @Override
+    public int getTile(int col, int row) {
+        return cells[row][col];
+    }
+
+    @Override
+    public void setTile(int col, int row, int id) {
+        cells[row][col] = id;
+    }
+}
@@ -0,0 +1,23 @@
+package main.engine.world;
+
+/**
+ * ChunkSource - Where a streamed world reads its chunks from.
+ *
+ * Called from the streaming thread, so implementations must allow concurrent
+ * reads. CompiledMap is the usual source; procedural generators can implement it too.
+ */
+public interface ChunkSource {
+
+    int getCols();
+
+    int getRows();
+
+    int getLayerCount();
+
+    /**
+     * Copy a rectangle of tile ids of one layer.
+     *
+     * @param out row-major destination, width * height ids
+     */
+    void readRegion(int layer, int startCol, int startRow, int width, int height, int[] out);
+}
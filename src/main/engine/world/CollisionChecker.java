@@ -4,8 +4,10 @@ package main.engine.world;
 import main.engine.api.Collidable;
 import main.engine.core.Scene;
 import main.engine.physics.CollisionContext;
+import main.engine.physics.SweptTileResolver;
 import main.engine.physics.Vector2D;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -14,12 +16,20 @@ import java.util.List;
  * Checks if player can move to a position without hitting walls.
  */
 public class CollisionChecker {
+
+    // Hitbox margins inside the sprite box
+    public static final int MARGIN_X = 8;
+    public static final int MARGIN_TOP = 16;
+    public static final int MARGIN_BOTTOM = 4;
     
     private TileManager tileManager;
 
     private Scene scene;
     private int tileSize;
 
+    // Reused by the canMove calls of each thread to collect the nearby collidables
+    private final ThreadLocal<List<Collidable>> candidateLists = ThreadLocal.withInitial(ArrayList::new);
+
     public CollisionChecker(TileManager tileManager,Scene scene) {
         this.tileManager = tileManager;
         this.scene = scene;
@@ -34,10 +44,10 @@ public class CollisionChecker {
      */
     public boolean canMove(Vector2D position, int width, int height, CollisionContext context) {
         // Player hitbox corners
-        int left = (int) position.x + 8;      // Small margin
-        int right = (int) position.x + width - 8;
-        int top = (int) position.y + 16;      // Top margin (head area)
-        int bottom = (int) position.y + height - 4;
+        int left = (int) position.x + MARGIN_X;      // Small margin
+        int right = (int) position.x + width - MARGIN_X;
+        int top = (int) position.y + MARGIN_TOP;      // Top margin (head area)
+        int bottom = (int) position.y + height - MARGIN_BOTTOM;
         
         // Convert to tile coordinates
         int leftCol = left / tileSize;
@@ -52,17 +62,32 @@ public class CollisionChecker {
         if (tileManager.isSolid(leftCol, bottomRow)) return false;
         if (tileManager.isSolid(rightCol, bottomRow)) return false;
 
-        // checking the collision with the Collidables objects
-        if(scene!= null && scene.getCollidables() != null){
-            List<Collidable> collidables = scene.getCollidables();
-            for(Collidable collidable: collidables){
-                if(collidable.isSolidAt(position,width,height,context)){
+        // checking the collision with the Collidables near the box (scene broadphase)
+        if(scene != null){
+            List<Collidable> candidates = candidateLists.get();
+            candidates.clear();
+            int x = (int) Math.floor(position.x);
+            int y = (int) Math.floor(position.y);
+            // +1 covers the fractional part of the position
+            scene.queryCollidables(x, y, width + 1, height + 1, candidates);
+            for(int i = 0, n = candidates.size(); i < n; i++){
+                if(candidates.get(i).isSolidAt(position,width,height,context)){
+                    candidates.clear();
                     return false;
                 }
             }
+            candidates.clear();
         }
         return true;
     }
 
+    /**
+     * @return a resolver sweeping the same hitbox against the tiles,
+     *         for PlateformerPhysics.setTileResolver()
+     */
+    public SweptTileResolver createTileResolver() {
+        return new SweptTileResolver(tileManager, MARGIN_X, MARGIN_TOP, MARGIN_X, MARGIN_BOTTOM);
+    }
+
 
 }
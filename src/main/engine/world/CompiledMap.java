@@ -0,0 +1,195 @@
+package main.engine.world;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CompiledMap - Binary map file produced by TileMapCompiler.
+ *
+ * Loading is a memory map of the file plus bulk copies, no text parsing.
+ *
+ * File layout (little-endian):
+ *   int   magic        'G2DM'
+ *   short version      1
+ *   short layerCount   (0 = background, 1 = platform)
+ *   int   cols
+ *   int   rows
+ *   int   flags        bit 0: solidity bitmap present
+ *   int   solidHash    TileRegistry.solidityHash() of the tiles the bitmap was built with
+ *   short tiles[layerCount][rows][cols]   tile ids, -1 = empty
+ *   (padding to a multiple of 8 bytes)
+ *   long  solidity[(cols * rows + 63) / 64]  platform layer, row-major bits (if flag set)
+ */
+public class CompiledMap implements ChunkSource {
+
+    public static final int MAGIC = 0x4D443247;   // "G2DM" read as little-endian int
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 24;
+    public static final int FLAG_SOLIDITY = 1;
+
+    private final ByteBuffer data;
+    private final int cols;
+    private final int rows;
+    private final int layerCount;
+    private final boolean hasSolidity;
+    private final int solidityHash;
+
+    private CompiledMap(ByteBuffer data) throws IOException {
+        this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a compiled map (bad magic)");
+        }
+        if (data.getShort(4) != VERSION) {
+            throw new IOException("Unsupported compiled map version " + data.getShort(4));
+        }
+        this.layerCount = data.getShort(6);
+        this.cols = data.getInt(8);
+        this.rows = data.getInt(12);
+        this.hasSolidity = (data.getInt(16) & FLAG_SOLIDITY) != 0;
+        this.solidityHash = data.getInt(20);
+
+        long expected = solidityOffset() + (hasSolidity ? (long) SolidityMap.wordsFor(cols, rows) * 8 : 0);
+        if (cols < 0 || rows < 0 || layerCount < 0 || data.capacity() < expected) {
+            throw new IOException("Compiled map truncated or corrupt: " + cols + "x" + rows + ", " + layerCount + " layers");
+        }
+    }
+
+    /**
+     * Memory-map a compiled map file. The mapping stays valid after the
+     * channel is closed and is released when the CompiledMap is collected.
+     */
+    public static CompiledMap map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CompiledMap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** Wrap compiled map bytes already in memory (e.g. read from a jar). */
+    public static CompiledMap wrap(ByteBuffer data) throws IOException {
+        return new CompiledMap(data);
+    }
+
+    @Override
+    public int getCols() { return cols; }
+    @Override
+    public int getRows() { return rows; }
+    @Override
+    public int getLayerCount() { return layerCount; }
+    public boolean hasSolidity() { return hasSolidity; }
+
+    /** @return TileRegistry.solidityHash() of the solid tiles the bitmap was built from */
+    public int getSolidityHash() { return solidityHash; }
+
+    /** @return tile id of one cell */
+    public int getTile(int layer, int col, int row) {
+        // the constructor checked the whole file fits in the buffer
+        return data.getShort((int) (layerOffset(layer) + ((long) row * cols + col) * 2));
+    }
+
+    /**
+     * Absolute reads only, so several threads can read regions at the same time.
+     */
+    @Override
+    public void readRegion(int layer, int startCol, int startRow, int width, int height, int[] out) {
+        long base = layerOffset(layer);
+        for (int row = 0; row < height; row++) {
+            int offset = (int) (base + ((long) (startRow + row) * cols + startCol) * 2);
+            for (int col = 0; col < width; col++) {
+                out[row * width + col] = data.getShort(offset + col * 2);
+            }
+        }
+    }
+
+    /** @return the layer as [row][col] arrays, copied in bulk from the mapping */
+    public int[][] readLayer(int layer) {
+        if (layer < 0 || layer >= layerCount) {
+            throw new IndexOutOfBoundsException("Layer " + layer + " of " + layerCount);
+        }
+        ShortBuffer tiles = data.duplicate().position((int) layerOffset(layer)).slice()
+                .order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+
+        short[] rowBuffer = new short[cols];
+        int[][] result = new int[rows][cols];
+        for (int row = 0; row < rows; row++) {
+            tiles.get(rowBuffer);
+            int[] target = result[row];
+            for (int col = 0; col < cols; col++) {
+                target[col] = rowBuffer[col];
+            }
+        }
+        return result;
+    }
+
+    /** @return the precomputed solidity of the platform layer, null if the file has none */
+    public SolidityMap readSolidity() {
+        if (!hasSolidity) return null;
+        long[] bits = new long[SolidityMap.wordsFor(cols, rows)];
+        data.duplicate().position((int) solidityOffset()).slice().order(ByteOrder.LITTLE_ENDIAN)
+                .asLongBuffer().get(bits);
+        return new SolidityMap(cols, rows, bits);
+    }
+
+    private long layerOffset(int layer) {
+        return HEADER_SIZE + (long) layer * cols * rows * 2;
+    }
+
+    private long solidityOffset() {
+        long end = layerOffset(layerCount);
+        return (end + 7) & ~7L;
+    }
+
+    /**
+     * Encode layers into the compiled format.
+     *
+     * @param layers tile ids [layer][row][col], all the same size, ids in -1..32767
+     * @param solidTiles registry whose solid tiles make the platform layer
+     *                   solidity (layer 1), or null to leave it out
+     */
+    public static ByteBuffer encode(int[][][] layers, int cols, int rows, TileRegistry solidTiles) {
+        SolidityMap solidity = solidTiles == null || layers.length < 2 ? null
+                : SolidityMap.build(new ArrayTileLayer(layers[1]), solidTiles);
+        long layerBytes = (long) layers.length * cols * rows * 2;
+        long solidityOffset = (HEADER_SIZE + layerBytes + 7) & ~7L;
+        long size = solidityOffset + (solidity != null ? (long) SolidityMap.wordsFor(cols, rows) * 8 : 0);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Map too large for the compiled format: " + cols + "x" + rows);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) layers.length)
+                .putInt(cols)
+                .putInt(rows)
+                .putInt(solidity != null ? FLAG_SOLIDITY : 0)
+                .putInt(solidity != null ? solidTiles.solidityHash() : 0);
+
+        for (int[][] layer : layers) {
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    int id = layer[row][col];
+                    if (id < -1 || id > Short.MAX_VALUE) {
+                        throw new IllegalArgumentException("Tile id " + id + " at " + col + "," + row + " doesn't fit in 16 bits");
+                    }
+                    buffer.putShort((short) id);
+                }
+            }
+        }
+
+        if (solidity != null) {
+            buffer.position((int) solidityOffset);
+            long[] bits = solidity.getBits();
+            for (int i = 0; i < SolidityMap.wordsFor(cols, rows); i++) {
+                buffer.putLong(bits[i]);
+            }
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,177 @@
+package main.engine.world;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * CsvLayerParser - Single-pass parser for CSV map layers.
+ *
+ * Reads the stream once through a byte buffer and parses the numbers digit by
+ * digit into a growable int array, without creating a String per line or cell.
+ * Every row must have the same number of columns as the first one.
+ *
+ * Format: comma separated tile ids, one row per line, -1 for empty cells.
+ * Spaces, tabs and \r are ignored, blank lines are skipped and a trailing
+ * comma at the end of a row is allowed.
+ */
+public final class CsvLayerParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CsvLayerParser(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    /** Parsed layer: tile ids stored row-major in a flat array. */
+    public static final class Result {
+        private final int[] cells;
+        private final int cols;
+        private final int rows;
+        private final long bytesRead;
+
+        private Result(int[] cells, int cols, int rows, long bytesRead){
+            this.cells = cells;
+            this.cols = cols;
+            this.rows = rows;
+            this.bytesRead = bytesRead;
+        }
+
+        /** @return tile ids, cell (col, row) at index row * cols + col */
+        public int[] getCells() { return cells; }
+        public int getCols() { return cols; }
+        public int getRows() { return rows; }
+        public long getBytesRead() { return bytesRead; }
+
+        public int get(int col, int row) {
+            return cells[row * cols + col];
+        }
+
+        /** @return the layer as [row][col] arrays */
+        public int[][] toRows() {
+            int[][] layer = new int[rows][];
+            for (int row = 0; row < rows; row++) {
+                layer[row] = Arrays.copyOfRange(cells, row * cols, (row + 1) * cols);
+            }
+            return layer;
+        }
+    }
+
+    /**
+     * Parse a whole layer. The stream is read to the end but not closed.
+     *
+     * @param in layer data
+     * @param name used in error messages (file path)
+     * @throws IOException on read errors, invalid characters, empty cells,
+     *                     ragged rows or an empty layer
+     */
+    public static Result parse(InputStream in, String name) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int[] cells = new int[4096];
+        int count = 0;
+
+        int cols = -1;          // columns of the first row, -1 until known
+        int rowCells = 0;       // cells in the current row
+        int rows = 0;
+        int line = 1;
+
+        int value = 0;
+        boolean negative = false;
+        boolean hasDigits = false;
+        boolean hasCell = false;  // current cell has started (digits or '-')
+        boolean cellEnded = false; // whitespace after the cell, only ',' or a newline may follow
+        long bytesRead = 0;
+
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            bytesRead += read;
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+
+                if (b >= '0' && b <= '9') {
+                    if (cellEnded) {
+                        throw error(name, line, "whitespace inside the number at column " + (rowCells + 1));
+                    }
+                    if (value > (Integer.MAX_VALUE - (b - '0')) / 10) {
+                        throw error(name, line, "number too large");
+                    }
+                    value = value * 10 + (b - '0');
+                    hasDigits = true;
+                    hasCell = true;
+                } else if (b == ',' || (b == '\n' && hasCell)) {
+                    if (!hasDigits) {
+                        throw error(name, line, "empty cell at column " + (rowCells + 1));
+                    }
+
+                    // store the cell
+                    if (count == cells.length) {
+                        cells = Arrays.copyOf(cells, cells.length * 2);
+                    }
+                    cells[count++] = negative ? -value : value;
+                    rowCells++;
+                    value = 0;
+                    negative = false;
+                    hasDigits = false;
+                    hasCell = false;
+                    cellEnded = false;
+
+                    if (b == '\n') {
+                        cols = endRow(name, line, cols, rowCells);
+                        rows++;
+                        rowCells = 0;
+                        line++;
+                    }
+                } else if (b == '\n') {
+                    // row ending with a trailing comma (Tiled export), or a blank line
+                    if (rowCells > 0) {
+                        cols = endRow(name, line, cols, rowCells);
+                        rows++;
+                        rowCells = 0;
+                    }
+                    line++;
+                } else if (b == '-' && !hasCell) {
+                    negative = true;
+                    hasCell = true;
+                } else if (b == ' ' || b == '\t' || b == '\r') {
+                    // "1 2" is an invalid cell, not tile 12
+                    if (hasCell) cellEnded = true;
+                } else {
+                    throw error(name, line, "unexpected character '" + (char) (b & 0xFF) + "'");
+                }
+            }
+        }
+
+        // last row without a trailing newline
+        if (hasCell) {
+            if (!hasDigits) {
+                throw error(name, line, "empty cell at column " + (rowCells + 1));
+            }
+            if (count == cells.length) {
+                cells = Arrays.copyOf(cells, cells.length + 1);
+            }
+            cells[count++] = negative ? -value : value;
+            rowCells++;
+        }
+        if (rowCells > 0) {
+            cols = endRow(name, line, cols, rowCells);
+            rows++;
+        }
+
+        if (rows == 0) {
+            throw new IOException("Layer " + name + " is empty");
+        }
+
+        return new Result(count == cells.length ? cells : Arrays.copyOf(cells, count), cols, rows, bytesRead);
+    }
+
+    private static int endRow(String name, int line, int cols, int rowCells) throws IOException {
+        if (cols != -1 && rowCells != cols) {
+            throw error(name, line, "expected " + cols + " columns, found " + rowCells);
+        }
+        return rowCells;
+    }
+
+    private static IOException error(String name, int line, String message) {
+        return new IOException("Invalid layer " + name + " at line " + line + ": " + message);
+    }
+}
@@ -0,0 +1,99 @@
+package main.engine.world;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+/**
+ * OffHeapTileLayer - Tile layer held as 16-bit ids in one direct buffer.
+ *
+ * Row-major, 2 bytes per cell and no per-row arrays, outside of the heap so
+ * the garbage collector never scans it. Ids are limited to -1..32767 like
+ * CompiledMap. The native memory is released when the layer is collected.
+ */
+public class OffHeapTileLayer implements TileLayer {
+
+    public static final int MAX_TILE_ID = Short.MAX_VALUE;
+
+    private final ShortBuffer cells;
+    private final int cols;
+    private final int rows;
+
+    /** Create a layer of empty (-1) cells. */
+    public OffHeapTileLayer(int cols, int rows) {
+        long bytes = (long) cols * rows * 2;
+        if (cols < 0 || rows < 0 || bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid off-heap layer size: " + cols + "x" + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.cells = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder()).asShortBuffer();
+        for (int i = 0; i < cols * rows; i++) {
+            cells.put(i, (short) -1);
+        }
+    }
+
+    /** Copy row-major tile ids, e.g. from CsvLayerParser.Result.getCells(). */
+    public static OffHeapTileLayer copyOf(int[] ids, int cols, int rows) {
+        OffHeapTileLayer layer = new OffHeapTileLayer(cols, rows);
+        for (int i = 0; i < cols * rows; i++) {
+            layer.cells.put(i, toShort(ids[i]));
+        }
+        return layer;
+    }
+
+    /** Copy another layer, e.g. an ArrayTileLayer of generated ids. */
+    public static OffHeapTileLayer copyOf(TileLayer source) {
+        OffHeapTileLayer layer = new OffHeapTileLayer(source.getCols(), source.getRows());
+        for (int row = 0; row < layer.rows; row++) {
+            for (int col = 0; col < layer.cols; col++) {
+                layer.cells.put(row * layer.cols + col, toShort(source.getTile(col, row)));
+            }
+        }
+        return layer;
+    }
+
+    /** Copy one layer of a map source row by row, without a heap copy of the whole layer. */
+    public static OffHeapTileLayer copyOf(ChunkSource source, int layerIndex) {
+        int cols = source.getCols();
+        int rows = source.getRows();
+        OffHeapTileLayer layer = new OffHeapTileLayer(cols, rows);
+        int[] row = new int[cols];
+        for (int r = 0; r < rows; r++) {
+            source.readRegion(layerIndex, 0, r, cols, 1, row);
+            int offset = r * cols;
+            for (int c = 0; c < cols; c++) {
+                layer.cells.put(offset + c, toShort(row[c]));
+            }
+        }
+        return layer;
+    }
+
+    @Override
+    public int getCols() { return cols; }
+
+    @Override
+    public int getRows() { return rows; }
+
+    @Override
+    public int getTile(int col, int row) {
+        return cells.get(row * cols + col);
+    }
+
+    @Override
+    public void setTile(int col, int row, int id) {
+        cells.put(row * cols + col, toShort(id));
+    }
+
+    /** @return native memory used by the cells */
+    public long getSizeInBytes() {
+        return (long) cols * rows * 2;
+    }
+
+    private static short toShort(int id) {
+        if (id < -1 || id > MAX_TILE_ID) {
+            throw new IllegalArgumentException("Tile id " + id + " does not fit an off-heap layer");
+        }
+        return (short) id;
+    }
+}
@@ -0,0 +1,71 @@
+package main.engine.world;
+
+/**
+ * SolidityMap - One bit per map cell telling whether it blocks movement.
+ *
+ * Precomputed from the platform layer and the tile registry, so collision
+ * queries don't have to look up the tile of each cell.
+ * Bits are stored row-major in a long array.
+ */
+public class SolidityMap {
+
+    private final long[] bits;
+    private final int cols;
+    private final int rows;
+
+    public SolidityMap(int cols, int rows) {
+        this(cols, rows, new long[wordsFor(cols, rows)]);
+    }
+
+    /**
+     * Wrap bits computed elsewhere (e.g. read from a compiled map file).
+     */
+    public SolidityMap(int cols, int rows, long[] bits) {
+        if (bits.length < wordsFor(cols, rows)) {
+            throw new IllegalArgumentException("Not enough bits for a " + cols + "x" + rows + " map");
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.bits = bits;
+    }
+
+    /** Compute the solidity of every cell of a layer. */
+    public static SolidityMap build(TileLayer layer, TileRegistry registry) {
+        int cols = layer.getCols();
+        int rows = layer.getRows();
+        SolidityMap map = new SolidityMap(cols, rows);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (registry.isSolid(layer.getTile(col, row))) {
+                    map.set(col, row, true);
+                }
+            }
+        }
+        return map;
+    }
+
+    static int wordsFor(int cols, int rows) {
+        return (int) (((long) cols * rows + 63) >>> 6);
+    }
+
+    /** No bounds checks: the caller checks the cell is inside the map. */
+    public boolean isSolid(int col, int row) {
+        int index = row * cols + col;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void set(int col, int row, boolean solid) {
+        int index = row * cols + col;
+        if (solid) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+
+    /** @return the backing words (row-major, bit i of the map is bit i % 64 of word i / 64) */
+    public long[] getBits() { return bits; }
+}
@@ -0,0 +1,136 @@
+package main.engine.world;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import main.engine.utils.Log;
+
+/**
+ * TileChunkCache - Pre-rendered blocks of tiles for the static map layers.
+ *
+ * Each chunk is a square of chunkTiles x chunkTiles tiles baked into one image,
+ * so a whole chunk is drawn with a single drawImage call. Chunks are kept in LRU
+ * order and the least recently drawn ones are evicted when the cache grows past
+ * its memory budget. TileManager bakes the chunks and invalidates them when tiles change.
+ *
+ * Chunks are drawn and baked on the render thread (the EDT in passive mode)
+ * while tiles change on the game thread, so every access is synchronized and
+ * a chunk baked before an invalidation is not stored.
+ */
+class TileChunkCache {
+
+    // Marks a baked chunk with no tiles in it: nothing to draw, no memory used
+    static final BufferedImage EMPTY_CHUNK = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    private final int chunkTiles;
+    private final long memoryBudget;
+    private final GraphicsConfiguration graphicsConfiguration;
+
+    // access-ordered: iteration starts with the least recently used chunk
+    private final LinkedHashMap<Long, BufferedImage> chunks = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedBytes;
+    // Bumped by every invalidation, a bake started before it may hold old tiles
+    private long invalidations;
+
+    /**
+     * @param chunkTiles chunk width and height in tiles
+     * @param memoryBudget maximum bytes of baked images kept (4 bytes per pixel)
+     */
+    TileChunkCache(int chunkTiles, long memoryBudget){
+        if(chunkTiles < 1){
+            throw new IllegalArgumentException("Chunk size must be at least 1 tile");
+        }
+        this.chunkTiles = chunkTiles;
+        this.memoryBudget = memoryBudget;
+        // compatible images match the screen format and can be accelerated by Java2D
+        this.graphicsConfiguration = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    int getChunkTiles(){
+        return chunkTiles;
+    }
+
+    /** @return the baked chunk, or null if it has to be (re)built */
+    synchronized BufferedImage get(int layer, int chunkCol, int chunkRow){
+        return chunks.get(key(layer, chunkCol, chunkRow));
+    }
+
+    /** @return value to pass to put when the bake of a chunk starts */
+    synchronized long getInvalidationCount(){
+        return invalidations;
+    }
+
+    /**
+     * Store a baked chunk, unless the cache was invalidated since bakeStart
+     * (the chunk may then miss a tile change; it is baked again on next draw).
+     */
+    synchronized void put(int layer, int chunkCol, int chunkRow, BufferedImage image, long bakeStart){
+        if(bakeStart != invalidations) return;
+        BufferedImage previous = chunks.put(key(layer, chunkCol, chunkRow), image);
+        usedBytes += sizeOf(image) - sizeOf(previous);
+        evictOverBudget();
+    }
+
+    BufferedImage createImage(int width, int height){
+        if(graphicsConfiguration != null){
+            return graphicsConfiguration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /** Drop the chunk containing the given tile so it is rebuilt on next draw. */
+    synchronized void invalidateTile(int layer, int col, int row){
+        invalidations++;
+        BufferedImage removed = chunks.remove(key(layer, col / chunkTiles, row / chunkTiles));
+        usedBytes -= sizeOf(removed);
+    }
+
+    /** Drop every chunk overlapping the given tile range (inclusive). */
+    synchronized void invalidateRegion(int layer, int startCol, int startRow, int endCol, int endRow){
+        invalidations++;
+        for(int chunkRow = startRow / chunkTiles; chunkRow <= endRow / chunkTiles; chunkRow++){
+            for(int chunkCol = startCol / chunkTiles; chunkCol <= endCol / chunkTiles; chunkCol++){
+                usedBytes -= sizeOf(chunks.remove(key(layer, chunkCol, chunkRow)));
+            }
+        }
+    }
+
+    synchronized void invalidateAll(){
+        invalidations++;
+        chunks.clear();
+        usedBytes = 0;
+    }
+
+    synchronized long getUsedBytes(){
+        return usedBytes;
+    }
+
+    synchronized int getChunkCount(){
+        return chunks.size();
+    }
+
+    private void evictOverBudget(){
+        Iterator<Map.Entry<Long, BufferedImage>> iterator = chunks.entrySet().iterator();
+        while(usedBytes > memoryBudget && iterator.hasNext()){
+            Map.Entry<Long, BufferedImage> eldest = iterator.next();
+            usedBytes -= sizeOf(eldest.getValue());
+            iterator.remove();
+            Log.debug("Tile chunk evicted, cache at " + usedBytes / 1024 + " KB");
+        }
+    }
+
+    private static long sizeOf(BufferedImage image){
+        if(image == null || image == EMPTY_CHUNK) return 0;
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    private static long key(int layer, int chunkCol, int chunkRow){
+        return ((long) layer << 56) | ((long) chunkRow << 28) | chunkCol;
+    }
+}
@@ -0,0 +1,19 @@
+package main.engine.world;
+
+/**
+ * TileLayer - Storage of the tile ids of one map layer.
+ *
+ * Lets TileManager draw and query layers without knowing how they are stored
+ * (heap arrays, streamed chunks...). Callers check bounds before get/set.
+ */
+public interface TileLayer {
+
+    int getCols();
+
+    int getRows();
+
+    /** @return tile id at the cell, -1 if empty */
+    int getTile(int col, int row);
+
+    void setTile(int col, int row, int id);
+}
@@ -4,44 +4,87 @@ package main.engine.world;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
+import main.engine.api.Positioned;
+import main.engine.api.Updatable;
+import main.engine.graphics.Camera;
+import main.engine.physics.SolidGrid;
 import main.engine.utils.Log;
 
 /**
  * TileManager - Loads and renders the game main.engine.world.
  *
  */
-public class TileManager {
+public class TileManager implements SolidGrid, Updatable {
+
+    /** Map layers, drawn in this order. */
+    public enum Layer { BACKGROUND, PLATFORM }
+
+    /** Where the tile ids of loaded maps are kept. */
+    public enum LayerStorage {
+        /** int arrays on the heap, 4 bytes per cell */
+        HEAP,
+        /** 16-bit ids in direct buffers, 2 bytes per cell, not scanned by the GC */
+        OFF_HEAP
+    }
+
+    public static final int DEFAULT_CHUNK_TILES = 16;
+    public static final long DEFAULT_CHUNK_CACHE_BUDGET = 64L * 1024 * 1024;
     
-    private Map<Integer,Tile> tiles;
-    private int[][] platformLayer;
-    private int[][] backgroundLayer;
+    private TileRegistry tiles;
+    private TileLayer platformLayer;
+    private TileLayer backgroundLayer;
     private int mapCols;
     private int mapRows;
     private int tileSize;
+    private LayerStorage layerStorage = LayerStorage.HEAP;
+
+    // Extra tiles drawn around the visible area
+    private static final int CULL_MARGIN = 1;
+
+    // Precomputed solid cells of the platform layer (null until a map is loaded)
+    // Only replaced on the update thread, so isSolid stays read-only for parallel updatables
+    private SolidityMap solidity;
+
+    // Optional, limits drawing to the visible tiles
+    private Camera camera;
+
+    // Optional, pre-rendered blocks of tiles (null = draw tile by tile), read by the render thread
+    private volatile TileChunkCache chunkCache;
+
+    // Set while the map is streamed chunk by chunk (null = whole map in memory)
+    private WorldStreamer streamer;
+    // Area kept streamed in by update(): around the focus if set, else the camera viewport
+    private Positioned streamingFocus;
+    private int streamingWidth;
+    private int streamingHeight;
 
     public TileManager(int tileSize) {
         this.tileSize = tileSize;
-        tiles = new HashMap<>();
+        tiles = new TileRegistry();
     }
 
     /**
-     * Register a tile with the manager.
+     * Register a tile with the manager. The solid cells are rebuilt right
+     * away, so register the tiles before loading the map when there are many.
      */
     public void registerTile(int id, Tile tile) {
-        tiles.put(id, tile);
+        tiles.register(id, tile);
+        invalidateChunks();
+        rebuildSolidity();
     }
 
     /**
      * Register a tile from image and solid flag.
      */
     public void registerTile(int id, BufferedImage image, boolean solid) {
-        tiles.put(id, new Tile(image, solid));
+        registerTile(id, new Tile(image, solid));
     }
 
     /**
@@ -49,98 +92,479 @@ public class TileManager {
      *
      * the map is divided into layers
      * we should load each layer
+     * If a layer can't be loaded the error is logged and the current map is kept.
      * @param backgroundPath background layer file path
      * @param platformPath platform layer file path
      */
     public void loadMap(String backgroundPath, String platformPath) {
-        backgroundLayer = loadLayer(backgroundPath);
-        platformLayer = loadLayer(platformPath);
-        //System.out.println("Multi-layer map loaded: " + mapCols + "x" + mapRows);
-        
+        CsvLayerParser.Result background = loadLayer(backgroundPath);
+        CsvLayerParser.Result platform = loadLayer(platformPath);
+        if (background == null || platform == null) {
+            Log.error("Map not loaded: " + backgroundPath + ", " + platformPath);
+            return;
+        }
+
+        try {
+            setLayers(toLayer(background), toLayer(platform));
+            rebuildSolidity();
+            Log.info("Multi-layer map loaded: " + mapCols + "x" + mapRows);
+        } catch (IllegalArgumentException e) {
+            Log.error("Map not loaded: " + backgroundPath + ", " + platformPath, e);
+        }
+    }
+
+    /**
+     * LoadCompiledMap - binary map produced by TileMapCompiler
+     *
+     * Resources on the file system are memory-mapped, resources inside a jar
+     * are read into memory. Errors are logged and the current map is kept.
+     * @param resourcePath classpath path of the compiled map
+     */
+    public void loadCompiledMap(String resourcePath) {
+        URL url = getClass().getResource(resourcePath);
+        if (url == null) {
+            Log.error("Compiled map not found: " + resourcePath);
+            return;
+        }
+
+        try {
+            if ("file".equals(url.getProtocol())) {
+                loadCompiledMap(Path.of(url.toURI()));
+                return;
+            }
+            try (InputStream in = url.openStream()) {
+                loadCompiledMap(CompiledMap.wrap(ByteBuffer.wrap(in.readAllBytes())), resourcePath);
+            }
+        } catch (IOException | URISyntaxException e) {
+            Log.error("Failed Loading Compiled Map: " + resourcePath, e);
+        }
+    }
+
+    /**
+     * LoadCompiledMap - memory-maps a binary map file
+     *
+     * Its precomputed solidity is only used if the registered solid tiles
+     * are the ones it was compiled with, else it is rebuilt from the registry.
+     * @param file path of the compiled map on disk
+     */
+    public void loadCompiledMap(Path file) {
+        try {
+            loadCompiledMap(CompiledMap.map(file), file.toString());
+        } catch (IOException e) {
+            Log.error("Failed Loading Compiled Map: " + file, e);
+        }
+    }
+
+    private void loadCompiledMap(CompiledMap map, String name) {
+        long startTime = System.nanoTime();
+        if (map.getLayerCount() < 2) {
+            Log.error("Compiled map " + name + " needs a background and a platform layer");
+            return;
+        }
+
+        if (layerStorage == LayerStorage.OFF_HEAP) {
+            setLayers(OffHeapTileLayer.copyOf(map, Layer.BACKGROUND.ordinal()), OffHeapTileLayer.copyOf(map, Layer.PLATFORM.ordinal()));
+        } else {
+            setLayers(map.readLayer(Layer.BACKGROUND.ordinal()), map.readLayer(Layer.PLATFORM.ordinal()));
+        }
+
+        // use the bitmap computed at compile time, unless the solid tiles changed since
+        tiles.refreshSolidity();
+        if (map.hasSolidity() && map.getSolidityHash() == tiles.solidityHash()) {
+            solidity = map.readSolidity();
+        } else {
+            if (map.hasSolidity()) Log.info("Compiled map " + name + " built with other solid tiles, rebuilding its solidity");
+            rebuildSolidity();
+        }
+
+        Log.info(String.format("Compiled map %s loaded: %dx%d in %.1f ms", name, mapCols, mapRows,
+                (System.nanoTime() - startTime) / 1_000_000.0));
+    }
+
+    /**
+     * LoadMap - from layers already in memory (procedural maps, tools, benchmarks)
+     *
+     * With HEAP storage the arrays are used as they are, OFF_HEAP copies them.
+     * @param backgroundLayer background tile ids [row][col]
+     * @param platformLayer platform tile ids [row][col], same size as the background
+     */
+    public void loadMap(int[][] backgroundLayer, int[][] platformLayer) {
+        if (layerStorage == LayerStorage.OFF_HEAP) {
+            setLayers(OffHeapTileLayer.copyOf(new ArrayTileLayer(backgroundLayer)),
+                    OffHeapTileLayer.copyOf(new ArrayTileLayer(platformLayer)));
+        } else {
+            setLayers(backgroundLayer, platformLayer);
+        }
+        rebuildSolidity();
+
         Log.info("Multi-layer map loaded: " + mapCols + "x" + mapRows);
     }
 
+    private void setLayers(int[][] backgroundLayer, int[][] platformLayer) {
+        setLayers(new ArrayTileLayer(backgroundLayer), new ArrayTileLayer(platformLayer));
+    }
+
+    private void setLayers(TileLayer backgroundLayer, TileLayer platformLayer) {
+        if (platformLayer.getCols() != backgroundLayer.getCols() || platformLayer.getRows() != backgroundLayer.getRows()) {
+            throw new IllegalArgumentException("Layers must have the same size");
+        }
+        stopStreaming();
+        this.backgroundLayer = backgroundLayer;
+        this.platformLayer = platformLayer;
+        this.mapRows = platformLayer.getRows();
+        this.mapCols = platformLayer.getCols();
+        invalidateChunks();
+    }
+
     /**
-     * LoadLayer -
+     * StreamMap - keep only the chunks near the camera in memory
      *
-     * a layer could be background, platform
-     * @param path path of the layer file
-     * @return a 2d Array
+     * For maps too large to load whole. Chunks around the streaming area (see
+     * setStreamingFocus, the camera viewport by default) are read on a
+     * background thread as it moves and far ones are dropped, so tile changes
+     * made with setTile are lost when their chunk is unloaded.
+     *
+     * Streaming runs in update(): add the TileManager to the scene, or call
+     * update() every tick. Drawing never loads chunks, chunks not loaded yet
+     * are drawn empty; collision queries load them with LOAD_BLOCKING.
+     *
+     * @param source background and platform layers (e.g. a CompiledMap)
+     * @param chunkTiles streamed chunk width and height in tiles
+     * @param loadRadius chunks kept loaded around the visible area
+     * @param policy how collisions and drawing treat chunks not loaded yet
      */
-    private int[][] loadLayer(String path) {
-        int[][] layer = null;  // Initialize to null before try block
+    public void streamMap(ChunkSource source, int chunkTiles, int loadRadius, WorldStreamer.NonResidentPolicy policy) {
+        if (source.getLayerCount() < 2) {
+            Log.error("Streamed map needs a background and a platform layer");
+            return;
+        }
+
+        WorldStreamer newStreamer = new WorldStreamer(source, chunkTiles, loadRadius, loadRadius + 1, policy);
+        setLayers(newStreamer.getLayer(Layer.BACKGROUND.ordinal()), newStreamer.getLayer(Layer.PLATFORM.ordinal()));
+        this.streamer = newStreamer;
+        tiles.refreshSolidity();
+        // streamed chunks are queried directly, a map-sized bitset is what streaming avoids
+        solidity = null;
+
+        Log.info("Streaming map: " + mapCols + "x" + mapRows + ", chunks of " + chunkTiles + " tiles");
+    }
 
-        // Read the file
+    /**
+     * StreamCompiledMap - stream a binary map produced by TileMapCompiler
+     * @param file path of the compiled map on disk
+     */
+    public void streamCompiledMap(Path file, WorldStreamer.NonResidentPolicy policy) {
         try {
-            BufferedReader br = new BufferedReader(
-                new InputStreamReader(getClass().getResourceAsStream(path))
-            );
+            streamMap(CompiledMap.map(file), DEFAULT_CHUNK_TILES * 4, 1, policy);
+        } catch (IOException e) {
+            Log.error("Failed Streaming Compiled Map: " + file, e);
+        }
+    }
 
-            // Extract the first line of the txt file
-            String firstLine = br.readLine();
+    /**
+     * Stream the area of the given size centered on the focus (usually the
+     * player) instead of the camera viewport. Works without a camera, e.g. in
+     * headless runs.
+     *
+     * @param focus followed object, null to go back to the camera viewport
+     * @param width streamed area width in pixels, e.g. the screen width
+     * @param height streamed area height in pixels
+     */
+    public void setStreamingFocus(Positioned focus, int width, int height) {
+        this.streamingFocus = focus;
+        this.streamingWidth = width;
+        this.streamingHeight = height;
+    }
 
-            // Extract the number of columns in the row
-            String[] firstRow = firstLine.split(",");  // CSV uses commas
-            int cols = firstRow.length;
+    /** Keep the chunks around the focus or the camera loaded. Nothing to do without streaming. */
+    @Override
+    public void update(double deltaTime) {
+        if (streamer == null) return;
+        int minX, minY, maxX, maxY;
+        if (streamingFocus != null) {
+            minX = streamingFocus.getX() + streamingFocus.getWidth() / 2 - streamingWidth / 2;
+            minY = streamingFocus.getY() + streamingFocus.getHeight() / 2 - streamingHeight / 2;
+            maxX = minX + streamingWidth;
+            maxY = minY + streamingHeight;
+        } else if (camera != null) {
+            minX = (int) Math.floor(camera.getX());
+            minY = (int) Math.floor(camera.getY());
+            maxX = minX + camera.getViewportWidth();
+            maxY = minY + camera.getViewportHeight();
+        } else {
+            // requesting the whole map would defeat streaming
+            return;
+        }
+        updateStreaming(Math.floorDiv(minX, tileSize), Math.floorDiv(minY, tileSize),
+                Math.floorDiv(maxX - 1, tileSize), Math.floorDiv(maxY - 1, tileSize));
+    }
 
-            // Extract the number of rows in the file
-            int rowCount = 1;
-            while (br.readLine() != null) rowCount++;
-            int rows = rowCount;
+    /**
+     * Load the streamed chunks around a tile range, e.g. to keep the world
+     * under off-screen actors alive. update() already does this for the streaming area.
+     */
+    public void updateStreaming(int startCol, int startRow, int endCol, int endRow) {
+        if (streamer == null) return;
+        streamer.update(startCol, startRow, endCol, endRow);
 
-            // close the buffer reader
-            br.close();
+        // chunks baked before their tiles arrived are rebuilt
+        WorldStreamer.Chunk loaded;
+        TileChunkCache cache = chunkCache;
+        while ((loaded = streamer.pollLoaded()) != null) {
+            if (cache == null) continue;
+            int endLoadedCol = loaded.startCol + loaded.width - 1;
+            int endLoadedRow = loaded.startRow + loaded.height - 1;
+            for (Layer layer : Layer.values()) {
+                cache.invalidateRegion(layer.ordinal(), loaded.startCol, loaded.startRow, endLoadedCol, endLoadedRow);
+            }
+        }
+    }
 
-            br = new BufferedReader(
-                new InputStreamReader(getClass().getResourceAsStream(path))
-            );
-            // initialize the layer array
-            layer = new int[rows][cols];
+    /** Stop the streaming thread, the map stays empty until another one is loaded. */
+    private void stopStreaming() {
+        if (streamer != null) {
+            streamer.close();
+            streamer = null;
+        }
+    }
 
-            // Loop through each line to extract numbers of each row
-            for (int row = 0; row < rows; row++) {
-                String line = br.readLine();
-                if (line == null) break;
+    /** @return the streamer of the current map, null if it is fully in memory */
+    public WorldStreamer getStreamer() {
+        return streamer;
+    }
 
-                String[] numbers = line.split(",");  // CSV uses commas
+    /**
+     * Choose how maps loaded from now on are stored. OFF_HEAP halves the
+     * memory of the tile ids and keeps them out of the heap, for huge maps.
+     */
+    public void setLayerStorage(LayerStorage layerStorage) {
+        this.layerStorage = layerStorage;
+    }
 
-                for (int col = 0; col < cols && col < numbers.length; col++) {
-                    layer[row][col] = Integer.parseInt(numbers[col].trim());
-                }
+    public LayerStorage getLayerStorage() {
+        return layerStorage;
+    }
+
+    private TileLayer toLayer(CsvLayerParser.Result result) {
+        if (layerStorage == LayerStorage.OFF_HEAP) {
+            return OffHeapTileLayer.copyOf(result.getCells(), result.getCols(), result.getRows());
+        }
+        return new ArrayTileLayer(result.toRows());
+    }
+
+    /**
+     * LoadLayer -
+     *
+     * a layer could be background, platform
+     * Parsed in a single pass by CsvLayerParser, load throughput is logged.
+     * @param path path of the layer file
+     * @return the parsed cells, null if the layer couldn't be loaded
+     */
+    private CsvLayerParser.Result loadLayer(String path) {
+        long startTime = System.nanoTime();
+
+        try (InputStream in = getClass().getResourceAsStream(path)) {
+            if (in == null) {
+                Log.error("Layer not found: " + path);
+                return null;
             }
 
-            // close the bufferReader
-            br.close();
+            CsvLayerParser.Result result = CsvLayerParser.parse(in, path);
 
-            mapCols = cols;
-            mapRows = rows;
+            double millis = (System.nanoTime() - startTime) / 1_000_000.0;
+            Log.info(String.format("Layer %s loaded: %dx%d, %d KB in %.1f ms (%.1f MB/s)",
+                    path, result.getCols(), result.getRows(), result.getBytesRead() / 1024, millis,
+                    result.getBytesRead() / 1_048_576.0 / Math.max(millis / 1000.0, 1e-9)));
+            return result;
 
         } catch (IOException e) {
-            /* System.err.println("Error loading layer: " + path);
-            e.printStackTrace(); */ 
-
             Log.error("Failed Loading Layer: "+path, e);
+            return null;
+        }
+    }
 
+    /**
+     * Change one tile of a layer (breakable blocks, opened doors...).
+     * Only the cached chunk containing it is rebuilt.
+     *
+     * @param id new tile id, -1 for empty
+     */
+    public void setTile(Layer layer, int col, int row, int id) {
+        TileLayer tileLayer = layer == Layer.BACKGROUND ? backgroundLayer : platformLayer;
+        if (tileLayer == null || col < 0 || col >= mapCols || row < 0 || row >= mapRows) {
+            throw new IndexOutOfBoundsException("Tile outside of the map: " + col + "," + row);
         }
+        tileLayer.setTile(col, row, id);
+
+        if (layer == Layer.PLATFORM && solidity != null) {
+            solidity.set(col, row, tiles.isSolid(id));
+        }
+        TileChunkCache cache = chunkCache;
+        if (cache != null) {
+            cache.invalidateTile(layer.ordinal(), col, row);
+        }
+    }
+
+    /** @return tile id at the given cell, -1 if empty or outside the map */
+    public int getTile(Layer layer, int col, int row) {
+        TileLayer tileLayer = layer == Layer.BACKGROUND ? backgroundLayer : platformLayer;
+        if (tileLayer == null || col < 0 || col >= mapCols || row < 0 || row >= mapRows) return -1;
+        return tileLayer.getTile(col, row);
+    }
+
+    /**
+     * Draw the layers from pre-rendered chunks instead of tile by tile.
+     *
+     * Chunks are baked lazily the first time they become visible and the least
+     * recently drawn ones are evicted above the memory budget. The budget should
+     * hold at least the chunks visible on one screen for both layers.
+     *
+     * @param chunkTiles chunk width and height in tiles (e.g. 16)
+     * @param memoryBudget maximum bytes of baked chunk images
+     */
+    public void enableChunkCache(int chunkTiles, long memoryBudget) {
+        this.chunkCache = new TileChunkCache(chunkTiles, memoryBudget);
+    }
+
+    public void enableChunkCache() {
+        enableChunkCache(DEFAULT_CHUNK_TILES, DEFAULT_CHUNK_CACHE_BUDGET);
+    }
+
+    public void disableChunkCache() {
+        this.chunkCache = null;
+    }
+
+    /**
+     * Recompute the solid cells of the platform layer.
+     * Called automatically when tiles or maps change; call it manually after
+     * changing the solid flag of an already registered Tile.
+     */
+    public void rebuildSolidity() {
+        tiles.refreshSolidity();
+        solidity = platformLayer == null || streamer != null ? null : SolidityMap.build(platformLayer, tiles);
+    }
 
-        // return the 2d Array
-        return layer;
+    private void invalidateChunks() {
+        TileChunkCache cache = chunkCache;
+        if (cache != null) cache.invalidateAll();
     }
 
+    /**
+     * Set the camera used to cull tiles outside the viewport, and the default
+     * streaming area of streamed maps. Tiles are still drawn at world coordinates; apply the camera to the graphics first.
+     */
+    public void setCamera(Camera camera) {
+        this.camera = camera;
+    }
+
+    /**
+     * Draw the visible part of the map.
+     *
+     * The visible area is the camera viewport when a camera is set, otherwise
+     * the clip of the graphics (the whole map if there is no clip).
+     */
     public void draw(Graphics2D g2d) {
+        int minX, minY, maxX, maxY;
+        Rectangle clip;
+        if (camera != null) {
+            minX = (int) Math.floor(camera.getX());
+            minY = (int) Math.floor(camera.getY());
+            maxX = minX + camera.getViewportWidth();
+            maxY = minY + camera.getViewportHeight();
+        } else if ((clip = g2d.getClipBounds()) != null) {
+            minX = clip.x;
+            minY = clip.y;
+            maxX = clip.x + clip.width;
+            maxY = clip.y + clip.height;
+        } else {
+            minX = 0;
+            minY = 0;
+            maxX = mapCols * tileSize;
+            maxY = mapRows * tileSize;
+        }
+
+        // Visible tile range plus margin, clamped to the map
+        int startCol = Math.max(0, Math.floorDiv(minX, tileSize) - CULL_MARGIN);
+        int startRow = Math.max(0, Math.floorDiv(minY, tileSize) - CULL_MARGIN);
+        int endCol = Math.min(mapCols - 1, Math.floorDiv(maxX - 1, tileSize) + CULL_MARGIN);
+        int endRow = Math.min(mapRows - 1, Math.floorDiv(maxY - 1, tileSize) + CULL_MARGIN);
+
+        TileChunkCache cache = chunkCache;
+        if (cache != null) {
+            drawChunks(g2d, cache, Layer.BACKGROUND, backgroundLayer, startCol, startRow, endCol, endRow);
+            drawChunks(g2d, cache, Layer.PLATFORM, platformLayer, startCol, startRow, endCol, endRow);
+            return;
+        }
+
         // Draw background layer first (behind everything)
-        drawLayer(g2d, backgroundLayer);
+        drawLayer(g2d, backgroundLayer, startCol, startRow, endCol, endRow);
         
         // Draw platform layer on top (with collision)
-        drawLayer(g2d, platformLayer);
+        drawLayer(g2d, platformLayer, startCol, startRow, endCol, endRow);
+    }
+
+    /**
+     * Draw the chunks covering the tile range, baking the missing ones.
+     */
+    private void drawChunks(Graphics2D g2d, TileChunkCache cache, Layer layer, TileLayer tileLayer,
+                            int startCol, int startRow, int endCol, int endRow) {
+        if (tileLayer == null || endCol < startCol || endRow < startRow) return;
+
+        int chunkTiles = cache.getChunkTiles();
+        int chunkPixels = chunkTiles * tileSize;
+
+        for (int chunkRow = startRow / chunkTiles; chunkRow <= endRow / chunkTiles; chunkRow++) {
+            for (int chunkCol = startCol / chunkTiles; chunkCol <= endCol / chunkTiles; chunkCol++) {
+                BufferedImage chunk = cache.get(layer.ordinal(), chunkCol, chunkRow);
+                if (chunk == null) {
+                    long bakeStart = cache.getInvalidationCount();
+                    chunk = bakeChunk(cache, tileLayer, chunkCol, chunkRow, chunkTiles);
+                    cache.put(layer.ordinal(), chunkCol, chunkRow, chunk, bakeStart);
+                }
+                if (chunk != TileChunkCache.EMPTY_CHUNK) {
+                    g2d.drawImage(chunk, chunkCol * chunkPixels, chunkRow * chunkPixels, null);
+                }
+            }
+        }
+    }
+
+    private BufferedImage bakeChunk(TileChunkCache cache, TileLayer tileLayer, int chunkCol, int chunkRow, int chunkTiles) {
+        int startCol = chunkCol * chunkTiles;
+        int startRow = chunkRow * chunkTiles;
+        int endCol = Math.min(mapCols, startCol + chunkTiles) - 1;
+        int endRow = Math.min(mapRows, startRow + chunkTiles) - 1;
+
+        if (isEmpty(tileLayer, startCol, startRow, endCol, endRow)) {
+            return TileChunkCache.EMPTY_CHUNK;
+        }
+
+        // edge chunks are cut to the map size
+        BufferedImage chunk = cache.createImage((endCol - startCol + 1) * tileSize, (endRow - startRow + 1) * tileSize);
+        Graphics2D chunkGraphics = chunk.createGraphics();
+        try {
+            chunkGraphics.translate(-startCol * tileSize, -startRow * tileSize);
+            drawLayer(chunkGraphics, tileLayer, startCol, startRow, endCol, endRow);
+        } finally {
+            chunkGraphics.dispose();
+        }
+        return chunk;
+    }
+
+    private boolean isEmpty(TileLayer tileLayer, int startCol, int startRow, int endCol, int endRow) {
+        for (int row = startRow; row <= endRow; row++) {
+            for (int col = startCol; col <= endCol; col++) {
+                if (tileLayer.getTile(col, row) != -1) return false;
+            }
+        }
+        return true;
     }
 
-    private void drawLayer(Graphics2D g2d, int[][] layer) {
+    private void drawLayer(Graphics2D g2d, TileLayer layer, int startCol, int startRow, int endCol, int endRow) {
         if (layer == null) return;
         
-        for (int row = 0; row < mapRows; row++) {
-            for (int col = 0; col < mapCols; col++) {
-                int tileIndex = layer[row][col];
+        for (int row = startRow; row <= endRow; row++) {
+            for (int col = startCol; col <= endCol; col++) {
+                int tileIndex = layer.getTile(col, row);
                 
                 // Skip empty tiles (-1 = transparent)
                 if (tileIndex == -1) continue;
@@ -150,13 +574,14 @@ public class TileManager {
 
                 Tile tile = tiles.get(tileIndex);
                 if (tile != null && tile.image != null) {
-                    g2d.drawImage(tiles.get(tileIndex).image, x, y,
+                    g2d.drawImage(tile.image, x, y,
                             tileSize, tileSize, null);
                 }
             }
         }
     }
 
+    @Override
     public boolean isSolid(int col, int row) {
         // Out of bounds horizontally = solid (walls)
         if (col < 0 || col >= mapCols) {
@@ -172,16 +597,26 @@ public class TileManager {
         }
         
         // Only check platform layer for collision (not background!)
-        if (platformLayer == null) return false;
-        
-        int tileIndex = platformLayer[row][col];
-        
-        // -1 = empty/transparent = not solid
-        if (tileIndex == -1) return false;
+        // empty (-1) and unregistered tiles are not solid
+        if (streamer != null) return streamer.isSolid(Layer.PLATFORM.ordinal(), col, row, tiles);
+        return solidity != null && solidity.isSolid(col, row);
+    }
 
-        Tile tile = tiles.get(tileIndex);
-        return tile != null && tile.solid;
+    /** @return the registered tiles, indexed by id */
+    public TileRegistry getTileRegistry() {
+        return tiles;
     }
 
+    @Override
     public int getTileSize(){return this.tileSize;}
+
+    public int getMapCols(){return this.mapCols;}
+
+    public int getMapRows(){return this.mapRows;}
+
+    /** @return map width in pixels */
+    public int getMapWidth(){return this.mapCols * this.tileSize;}
+
+    /** @return map height in pixels */
+    public int getMapHeight(){return this.mapRows * this.tileSize;}
 }
@@ -0,0 +1,93 @@
+package main.engine.world;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import main.engine.utils.Log;
+
+/**
+ * TileMapCompiler - Offline converter from CSV layers to a CompiledMap file.
+ *
+ * usage:
+ *   java main.engine.world.TileMapCompiler background.csv platform.csv level1.g2dm [solidIds]
+ *
+ *   solidIds: comma separated ids of the solid tiles (e.g. 4,5,6,7), used to
+ *   precompute the solidity bitmap. Without it the bitmap is left out and
+ *   computed from the registered tiles at load time. It is also recomputed
+ *   when the solid tiles registered at load time are not exactly these ids.
+ */
+public class TileMapCompiler {
+
+    private TileMapCompiler(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: TileMapCompiler <background.csv> <platform.csv> <output> [solidIds]");
+            System.exit(1);
+        }
+
+        int[] solidIds = args.length > 3 ? parseIds(args[3]) : null;
+        compile(Path.of(args[0]), Path.of(args[1]), Path.of(args[2]), solidIds);
+    }
+
+    /**
+     * Compile two CSV layers into a binary map file.
+     *
+     * @param solidIds ids of the solid tiles, null to leave out the solidity bitmap
+     */
+    public static void compile(Path backgroundCsv, Path platformCsv, Path output, int[] solidIds) throws IOException {
+        long startTime = System.nanoTime();
+
+        CsvLayerParser.Result background = parse(backgroundCsv);
+        CsvLayerParser.Result platform = parse(platformCsv);
+        if (background.getCols() != platform.getCols() || background.getRows() != platform.getRows()) {
+            throw new IOException("Layer sizes differ: " + background.getCols() + "x" + background.getRows()
+                    + " and " + platform.getCols() + "x" + platform.getRows());
+        }
+
+        int cols = platform.getCols();
+        int rows = platform.getRows();
+        int[][] platformRows = platform.toRows();
+
+        TileRegistry solidTiles = null;
+        if (solidIds != null) {
+            solidTiles = new TileRegistry();
+            for (int id : solidIds) {
+                solidTiles.register(id, new Tile(null, true));
+            }
+        }
+
+        ByteBuffer encoded = CompiledMap.encode(new int[][][]{ background.toRows(), platformRows }, cols, rows, solidTiles);
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (encoded.hasRemaining()) {
+                channel.write(encoded);
+            }
+        }
+
+        Log.info(String.format("Compiled map %s: %dx%d, %d KB in %.1f ms",
+                output, cols, rows, Files.size(output) / 1024, (System.nanoTime() - startTime) / 1_000_000.0));
+    }
+
+    private static CsvLayerParser.Result parse(Path csv) throws IOException {
+        try (InputStream in = Files.newInputStream(csv)) {
+            return CsvLayerParser.parse(in, csv.toString());
+        }
+    }
+
+    private static int[] parseIds(String list) {
+        String[] parts = list.split(",");
+        int[] ids = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ids[i] = Integer.parseInt(parts[i].trim());
+        }
+        return ids;
+    }
+}
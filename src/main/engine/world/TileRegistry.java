@@ -0,0 +1,76 @@
+package main.engine.world;
+
+import java.util.Arrays;
+
+/**
+ * TileRegistry - Tiles indexed directly by id.
+ *
+ * Tile ids are small non-negative integers, so tiles are kept in a dense array
+ * (grown on demand) instead of a map: a lookup is a bounds check and an array
+ * read, with no boxing and no hashing.
+ */
+public class TileRegistry {
+
+    private Tile[] tiles = new Tile[16];
+    private boolean[] solid = new boolean[16];
+    private int count;
+
+    /**
+     * @param id tile id used in the map layers (0 or more, -1 is reserved for empty)
+     */
+    public void register(int id, Tile tile) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Tile id must be 0 or more: " + id);
+        }
+        if (id >= tiles.length) {
+            int capacity = Math.max(id + 1, tiles.length * 2);
+            tiles = Arrays.copyOf(tiles, capacity);
+            solid = Arrays.copyOf(solid, capacity);
+        }
+        if (tiles[id] == null && tile != null) count++;
+        if (tiles[id] != null && tile == null) count--;
+        tiles[id] = tile;
+        solid[id] = tile != null && tile.solid;
+    }
+
+    /** @return the tile with this id, null if none is registered */
+    public Tile get(int id) {
+        return id >= 0 && id < tiles.length ? tiles[id] : null;
+    }
+
+    /** @return true if a solid tile is registered with this id */
+    public boolean isSolid(int id) {
+        return id >= 0 && id < solid.length && solid[id];
+    }
+
+    /**
+     * Re-read the solid flag of every tile (Tile.solid is a public field).
+     */
+    public void refreshSolidity() {
+        for (int id = 0; id < tiles.length; id++) {
+            solid[id] = tiles[id] != null && tiles[id].solid;
+        }
+    }
+
+    /**
+     * @return hash of the ids of the solid tiles, stored in compiled maps to
+     *         notice a registry that changed since the map was compiled
+     */
+    public int solidityHash() {
+        int hash = 1;
+        for (int id = 0; id < solid.length; id++) {
+            if (solid[id]) hash = hash * 31 + id;
+        }
+        return hash;
+    }
+
+    /** @return number of registered tiles */
+    public int size() {
+        return count;
+    }
+
+    /** @return one more than the highest id that can be stored without growing */
+    public int capacity() {
+        return tiles.length;
+    }
+}
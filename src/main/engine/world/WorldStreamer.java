@@ -0,0 +1,304 @@
+package main.engine.world;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import main.engine.utils.Log;
+
+/**
+ * WorldStreamer - Keeps only the chunks of a large map near the camera in memory.
+ *
+ * The map is split into square chunks read from a ChunkSource on a background
+ * thread when they come within loadRadius chunks of the visible area, and
+ * dropped when they are more than unloadRadius chunks away. Queries on cells
+ * whose chunk is not resident are answered by the NonResidentPolicy.
+ *
+ * Tile changes (setTile) only live as long as the chunk stays resident.
+ */
+public class WorldStreamer {
+
+    /** How queries answer for cells whose chunk is not loaded. */
+    public enum NonResidentPolicy {
+        /** Solid and not drawn: bodies stop at the edge of the loaded world */
+        SOLID,
+        /** Empty and not drawn */
+        EMPTY,
+        /** Collision queries load the chunk synchronously on the calling thread; drawn empty until loaded */
+        LOAD_BLOCKING
+    }
+
+    /** One resident chunk: tile ids of every layer, row-major. */
+    static final class Chunk {
+        final int chunkCol;
+        final int chunkRow;
+        final int startCol;
+        final int startRow;
+        final int width;
+        final int height;
+        final int[][] layers;
+        volatile boolean evicted;
+
+        // filled before construction: the final field publishes the ids to every thread
+        Chunk(int chunkCol, int chunkRow, int startCol, int startRow, int width, int height, int[][] layers) {
+            this.chunkCol = chunkCol;
+            this.chunkRow = chunkRow;
+            this.startCol = startCol;
+            this.startRow = startRow;
+            this.width = width;
+            this.height = height;
+            this.layers = layers;
+        }
+
+        int get(int layer, int col, int row) {
+            return layers[layer][(row - startRow) * width + (col - startCol)];
+        }
+    }
+
+    private final ChunkSource source;
+    private final int chunkTiles;
+    private final int chunkCols;
+    private final int chunkRows;
+    private final int loadRadius;
+    private final int unloadRadius;
+    private final NonResidentPolicy policy;
+
+    private final Map<Long, Chunk> resident = new ConcurrentHashMap<>();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Chunk> loaded = new ConcurrentLinkedQueue<>();
+    private final ExecutorService loader;
+
+    // Last chunk hit by a query: neighbouring cells are usually in the same chunk.
+    // Queried from the update and the drawing threads, the chunk's final fields make it safe to share
+    private volatile Chunk lastChunk;
+
+    // Visible chunk range of the last update, to skip work when it didn't change
+    private int lastMinChunkCol = -1, lastMinChunkRow = -1, lastMaxChunkCol = -1, lastMaxChunkRow = -1;
+    private volatile boolean residencyChanged;
+
+    /**
+     * @param source chunk data, read from the streaming thread
+     * @param chunkTiles chunk width and height in tiles
+     * @param loadRadius chunks loaded around the visible area
+     * @param unloadRadius chunks further than this from the visible area are dropped (at least loadRadius)
+     * @param policy answer for cells of chunks that are not loaded
+     */
+    public WorldStreamer(ChunkSource source, int chunkTiles, int loadRadius, int unloadRadius, NonResidentPolicy policy) {
+        if (chunkTiles < 1 || loadRadius < 0 || unloadRadius < loadRadius) {
+            throw new IllegalArgumentException("Invalid streaming settings: chunk " + chunkTiles
+                    + ", load radius " + loadRadius + ", unload radius " + unloadRadius);
+        }
+        this.source = source;
+        this.chunkTiles = chunkTiles;
+        this.chunkCols = (source.getCols() + chunkTiles - 1) / chunkTiles;
+        this.chunkRows = (source.getRows() + chunkTiles - 1) / chunkTiles;
+        this.loadRadius = loadRadius;
+        this.unloadRadius = unloadRadius;
+        this.policy = policy;
+
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "WorldStreamer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Request the chunks around the visible tile range and drop the far ones.
+     * Cheap when the visible chunks didn't change since the last call.
+     */
+    public void update(int startCol, int startRow, int endCol, int endRow) {
+        int minChunkCol = clamp(Math.floorDiv(startCol, chunkTiles), chunkCols);
+        int minChunkRow = clamp(Math.floorDiv(startRow, chunkTiles), chunkRows);
+        int maxChunkCol = clamp(Math.floorDiv(endCol, chunkTiles), chunkCols);
+        int maxChunkRow = clamp(Math.floorDiv(endRow, chunkTiles), chunkRows);
+
+        boolean moved = minChunkCol != lastMinChunkCol || minChunkRow != lastMinChunkRow
+                || maxChunkCol != lastMaxChunkCol || maxChunkRow != lastMaxChunkRow;
+        if (!moved && !residencyChanged) return;
+
+        lastMinChunkCol = minChunkCol;
+        lastMinChunkRow = minChunkRow;
+        lastMaxChunkCol = maxChunkCol;
+        lastMaxChunkRow = maxChunkRow;
+        residencyChanged = false;
+
+        // visible chunks first, then the ring around them
+        for (int radius = 0; radius <= loadRadius; radius += Math.max(1, loadRadius)) {
+            for (int chunkRow = Math.max(0, minChunkRow - radius); chunkRow <= Math.min(chunkRows - 1, maxChunkRow + radius); chunkRow++) {
+                for (int chunkCol = Math.max(0, minChunkCol - radius); chunkCol <= Math.min(chunkCols - 1, maxChunkCol + radius); chunkCol++) {
+                    requestChunk(chunkCol, chunkRow);
+                }
+            }
+        }
+
+        Iterator<Chunk> iterator = resident.values().iterator();
+        while (iterator.hasNext()) {
+            Chunk chunk = iterator.next();
+            if (chunk.chunkCol < minChunkCol - unloadRadius || chunk.chunkCol > maxChunkCol + unloadRadius
+                    || chunk.chunkRow < minChunkRow - unloadRadius || chunk.chunkRow > maxChunkRow + unloadRadius) {
+                chunk.evicted = true;
+                iterator.remove();
+            }
+        }
+    }
+
+    private void requestChunk(int chunkCol, int chunkRow) {
+        long key = key(chunkCol, chunkRow);
+        if (resident.containsKey(key) || !pending.add(key)) return;
+
+        try {
+            loader.execute(() -> {
+                try {
+                    Chunk chunk = readChunk(chunkCol, chunkRow);
+                    if (resident.putIfAbsent(key, chunk) == null) {
+                        loaded.add(chunk);
+                    }
+                } catch (RuntimeException e) {
+                    Log.error("Failed streaming chunk " + chunkCol + "," + chunkRow, e);
+                } finally {
+                    pending.remove(key);
+                    residencyChanged = true;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // streamer closed
+            pending.remove(key);
+        }
+    }
+
+    private Chunk readChunk(int chunkCol, int chunkRow) {
+        int startCol = chunkCol * chunkTiles;
+        int startRow = chunkRow * chunkTiles;
+        int width = Math.min(chunkTiles, source.getCols() - startCol);
+        int height = Math.min(chunkTiles, source.getRows() - startRow);
+
+        int[][] layers = new int[source.getLayerCount()][width * height];
+        for (int layer = 0; layer < layers.length; layer++) {
+            source.readRegion(layer, startCol, startRow, width, height, layers[layer]);
+        }
+        return new Chunk(chunkCol, chunkRow, startCol, startRow, width, height, layers);
+    }
+
+    /**
+     * @param load read the chunk on the calling thread if it is not resident
+     * @return the resident chunk holding the cell, null if not loaded.
+     *         The cell must be inside the map.
+     */
+    Chunk chunkAt(int col, int row, boolean load) {
+        int chunkCol = col / chunkTiles;
+        int chunkRow = row / chunkTiles;
+
+        Chunk last = lastChunk;
+        if (last != null && last.chunkCol == chunkCol && last.chunkRow == chunkRow && !last.evicted) {
+            return last;
+        }
+
+        long key = key(chunkCol, chunkRow);
+        Chunk chunk = resident.get(key);
+        if (chunk == null && load) {
+            Chunk read = readChunk(chunkCol, chunkRow);
+            chunk = resident.putIfAbsent(key, read);
+            if (chunk == null) {
+                chunk = read;
+                loaded.add(read);
+                residencyChanged = true;
+            }
+        }
+        if (chunk != null) lastChunk = chunk;
+        return chunk;
+    }
+
+    /** @return tile id, -1 if empty or the chunk is not loaded (never loads, it is used to draw) */
+    public int getTile(int layer, int col, int row) {
+        Chunk chunk = chunkAt(col, row, false);
+        return chunk == null ? -1 : chunk.get(layer, col, row);
+    }
+
+    /** Change a tile of a resident chunk. Ignored if the chunk is not loaded. */
+    public void setTile(int layer, int col, int row, int id) {
+        Chunk chunk = chunkAt(col, row, false);
+        if (chunk != null) {
+            chunk.layers[layer][(row - chunk.startRow) * chunk.width + (col - chunk.startCol)] = id;
+        }
+    }
+
+    /**
+     * @return true if the cell blocks movement, applying the policy to non-resident
+     *         chunks. The only query loading chunks, with LOAD_BLOCKING.
+     */
+    public boolean isSolid(int layer, int col, int row, TileRegistry registry) {
+        Chunk chunk = chunkAt(col, row, policy == NonResidentPolicy.LOAD_BLOCKING);
+        if (chunk == null) return policy == NonResidentPolicy.SOLID;
+        return registry.isSolid(chunk.get(layer, col, row));
+    }
+
+    /** @return a view of one layer, cells of chunks that are not loaded read as -1 */
+    public TileLayer getLayer(int layer) {
+        return new StreamedLayer(layer);
+    }
+
+    public boolean isResident(int col, int row) {
+        return resident.containsKey(key(col / chunkTiles, row / chunkTiles));
+    }
+
+    /**
+     * @return a chunk that became resident since the last call, null if none.
+     *         Used to refresh anything derived from the chunk (e.g. cached images).
+     */
+    Chunk pollLoaded() {
+        return loaded.poll();
+    }
+
+    public int getChunkTiles() { return chunkTiles; }
+    public int getResidentChunkCount() { return resident.size(); }
+    public int getPendingChunkCount() { return pending.size(); }
+    public NonResidentPolicy getPolicy() { return policy; }
+
+    /** Stop the streaming thread and drop every chunk. */
+    public void close() {
+        loader.shutdownNow();
+        for (Chunk chunk : resident.values()) {
+            chunk.evicted = true;
+        }
+        resident.clear();
+        lastChunk = null;
+    }
+
+    private final class StreamedLayer implements TileLayer {
+        private final int layer;
+
+        StreamedLayer(int layer) {
+            this.layer = layer;
+        }
+
+        @Override
+        public int getCols() { return source.getCols(); }
+
+        @Override
+        public int getRows() { return source.getRows(); }
+
+        @Override
+        public int getTile(int col, int row) {
+            return WorldStreamer.this.getTile(layer, col, row);
+        }
+
+        @Override
+        public void setTile(int col, int row, int id) {
+            WorldStreamer.this.setTile(layer, col, row, id);
+        }
+    }
+
+    private static int clamp(int chunk, int count) {
+        return Math.max(0, Math.min(count - 1, chunk));
+    }
+
+    private static long key(int chunkCol, int chunkRow) {
+        return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+}